@@ -0,0 +1,34 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- ----------------------------
+-- The days already in tbl_address_daily_summary are imported once by AddressBitmapMigration, after which
+-- tbl_address_daily_summary can be dropped
+-- ----------------------------
+
+-- ----------------------------
+-- Addresses seen for the first time by a contract on a day, as a serialized roaring bitmap of tbl_address_id ids
+-- ----------------------------
+DROP TABLE IF EXISTS `tbl_address_daily_bitmap`;
+CREATE TABLE IF NOT EXISTS `tbl_address_daily_bitmap`
+(
+    contract_hash VARCHAR(64) NOT NULL,
+    time          INT         NOT NULL,
+    address_count INT         NOT NULL,
+    bitmap        MEDIUMBLOB  NOT NULL,
+    PRIMARY KEY (contract_hash, time)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
+-- ----------------------------
+-- All addresses seen by a contract up to and including the day in time
+-- ----------------------------
+DROP TABLE IF EXISTS `tbl_address_lifetime_bitmap`;
+CREATE TABLE IF NOT EXISTS `tbl_address_lifetime_bitmap`
+(
+    contract_hash VARCHAR(64) NOT NULL,
+    time          INT         NOT NULL,
+    address_count INT         NOT NULL,
+    bitmap        LONGBLOB    NOT NULL,
+    PRIMARY KEY (contract_hash)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
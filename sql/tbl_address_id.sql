@@ -0,0 +1,11 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `tbl_address_id`;
+CREATE TABLE IF NOT EXISTS `tbl_address_id`
+(
+    id      INT          NOT NULL AUTO_INCREMENT,
+    address VARCHAR(255) COLLATE utf8_bin NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_address (address)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
@@ -27,6 +27,9 @@ CREATE TABLE `tbl_daily_summary`
     `ong_sum`              decimal(25, 9) NOT NULL COMMENT '当天的ong流通量',
     `active_address_count` int(11)        NOT NULL COMMENT '当天的活跃地址数量',
     `new_address_count`    int(11)        NOT NULL COMMENT '当天的新地址数量',
+    `total_address_count`  int(11)        NOT NULL DEFAULT 0 COMMENT '截至当天的地址总数',
+    `total_ontid_count`    int(11)        NOT NULL DEFAULT 0 COMMENT '截至当天的ONT ID总数',
+    `total_tx_count`       bigint(20)     NOT NULL DEFAULT 0 COMMENT '截至当天的交易总数',
     PRIMARY KEY (`time`) USING BTREE
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
@@ -0,0 +1,19 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `tbl_net_node_change`;
+CREATE TABLE IF NOT EXISTS `tbl_net_node_change`
+(
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    time             INT         NOT NULL,
+    ip               VARCHAR(15) NOT NULL,
+    change_type      TINYINT     NOT NULL,
+    version          VARCHAR(50) NOT NULL DEFAULT '',
+    is_consensus     BOOLEAN     NOT NULL,
+    is_active        BOOLEAN     NOT NULL,
+    last_active_time BIGINT      NOT NULL,
+    country          VARCHAR(20) NOT NULL DEFAULT '',
+    PRIMARY KEY (id),
+    KEY idx_time (time),
+    KEY idx_ip (ip)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
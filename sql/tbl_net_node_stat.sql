@@ -0,0 +1,13 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `tbl_net_node_stat`;
+CREATE TABLE IF NOT EXISTS `tbl_net_node_stat`
+(
+    time            INT         NOT NULL,
+    granularity     INT         NOT NULL,
+    dimension       VARCHAR(16) NOT NULL,
+    dimension_value VARCHAR(50) NOT NULL DEFAULT '',
+    node_count      INT         NOT NULL,
+    PRIMARY KEY (granularity, time, dimension, dimension_value)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,16 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `tbl_node_stake_history`;
+CREATE TABLE IF NOT EXISTS `tbl_node_stake_history`
+(
+    public_key    VARCHAR(70) NOT NULL,
+    granularity   INT         NOT NULL,
+    time          INT         NOT NULL,
+    init_pos      BIGINT      NOT NULL,
+    total_pos     BIGINT      NOT NULL,
+    current_stake BIGINT      NOT NULL,
+    max_authorize BIGINT      NOT NULL,
+    PRIMARY KEY (public_key, granularity, time),
+    KEY idx_granularity_time (granularity, time)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
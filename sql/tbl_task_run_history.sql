@@ -0,0 +1,21 @@
+SET FOREIGN_KEY_CHECKS = 0;
+
+DROP TABLE IF EXISTS `tbl_task_run_history`;
+CREATE TABLE IF NOT EXISTS `tbl_task_run_history`
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    task        VARCHAR(64)  NOT NULL,
+    start_time  BIGINT       NOT NULL,
+    end_time    BIGINT       NOT NULL,
+    duration    INT          NOT NULL,
+    status      VARCHAR(8)   NOT NULL,
+    error       VARCHAR(255) NOT NULL DEFAULT '',
+    range_begin BIGINT       NULL,
+    range_end   BIGINT       NULL,
+    row_count   BIGINT       NOT NULL DEFAULT 0,
+    stages      MEDIUMTEXT   NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_task_start_time (task, start_time),
+    KEY idx_start_time (start_time)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,14 @@
+-- ----------------------------
+-- Add the cumulative columns to an existing tbl_daily_summary and fill them from the daily counts
+-- ----------------------------
+ALTER TABLE `tbl_daily_summary`
+    ADD COLUMN `total_address_count` int(11)    NOT NULL DEFAULT 0 COMMENT '截至当天的地址总数',
+    ADD COLUMN `total_ontid_count`   int(11)    NOT NULL DEFAULT 0 COMMENT '截至当天的ONT ID总数',
+    ADD COLUMN `total_tx_count`      bigint(20) NOT NULL DEFAULT 0 COMMENT '截至当天的交易总数';
+
+SET @total_address_count = 0, @total_ontid_count = 0, @total_tx_count = 0;
+UPDATE `tbl_daily_summary`
+SET `total_address_count` = (@total_address_count := @total_address_count + `new_address_count`),
+    `total_ontid_count`   = (@total_ontid_count := @total_ontid_count + `new_ontid_count`),
+    `total_tx_count`      = (@total_tx_count := @total_tx_count + `tx_count`)
+ORDER BY `time`;
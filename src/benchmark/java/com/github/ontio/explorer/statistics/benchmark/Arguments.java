@@ -0,0 +1,67 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line arguments as {@code --name=value}, a bare {@code --name} meaning true. Every value is read once with
+ * its default, and {@link #checkAllUsed()} rejects the names left over.
+ */
+final class Arguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Arguments(String... args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    String required(String name) {
+        String value = values.remove(name);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " is required");
+        }
+        return value;
+    }
+
+    String string(String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long longValue(String name, long defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    double decimal(String name, double defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    boolean flag(String name, boolean defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    void checkAllUsed() {
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown arguments " + values.keySet());
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates a day of transfers per contract, once by scanning the day for every contract like the per-contract
+ * queries of the daily summary do, and once in a single grouped pass. Contract popularity is skewed so a few
+ * contracts carry most of the rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractAggregationBenchmark {
+
+    @Param({"100000"})
+    private int txCount;
+
+    @Param({"100", "1000"})
+    private int contractCount;
+
+    @Param({"3"})
+    private double skew;
+
+    private List<String> contractHashes;
+
+    private List<TxRow> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        contractHashes = new ArrayList<>(contractCount);
+        for (int i = 0; i < contractCount; i++) {
+            contractHashes.add(SyntheticData.contractHash(random));
+        }
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < txCount / 4; i++) {
+            addresses.add(SyntheticData.address(random));
+        }
+        rows = new ArrayList<>(txCount);
+        for (int i = 0; i < txCount; i++) {
+            String contractHash = contractHashes.get(SyntheticData.skewedIndex(random, contractCount, skew));
+            String from = addresses.get(SyntheticData.skewedIndex(random, addresses.size(), skew));
+            String to = addresses.get(random.nextInt(addresses.size()));
+            boolean ont = random.nextBoolean();
+            BigDecimal amount = ont ? BigDecimal.valueOf(random.nextInt(10000))
+                    : BigDecimal.valueOf((long) random.nextInt(100000) * 1000000L);
+            rows.add(new TxRow(contractHash, from, to, ont ? Constants.ONT : Constants.ONG, amount));
+        }
+    }
+
+    @Benchmark
+    public Map<String, ContractTotals> perContractScan() {
+        Map<String, ContractTotals> result = new HashMap<>();
+        for (String contractHash : contractHashes) {
+            ContractTotals totals = new ContractTotals();
+            for (TxRow row : rows) {
+                if (row.contractHash.equals(contractHash)) {
+                    totals.add(row);
+                }
+            }
+            result.put(contractHash, totals.finish());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, ContractTotals> singlePass() {
+        Map<String, ContractTotals> result = new HashMap<>();
+        for (String contractHash : contractHashes) {
+            result.put(contractHash, new ContractTotals());
+        }
+        for (TxRow row : rows) {
+            result.get(row.contractHash).add(row);
+        }
+        for (ContractTotals totals : result.values()) {
+            totals.finish();
+        }
+        return result;
+    }
+
+    private static class TxRow {
+
+        private final String contractHash;
+
+        private final String fromAddress;
+
+        private final String toAddress;
+
+        private final String assetName;
+
+        private final BigDecimal amount;
+
+        private TxRow(String contractHash, String fromAddress, String toAddress, String assetName, BigDecimal amount) {
+            this.contractHash = contractHash;
+            this.fromAddress = fromAddress;
+            this.toAddress = toAddress;
+            this.assetName = assetName;
+            this.amount = amount;
+        }
+
+    }
+
+    public static class ContractTotals {
+
+        private BigDecimal ontSum = Constants.ZERO;
+
+        private BigDecimal ongSum = Constants.ZERO;
+
+        private int txCount;
+
+        private final Set<String> addresses = new HashSet<>();
+
+        private void add(TxRow row) {
+            txCount++;
+            if (Constants.ONT.equals(row.assetName)) {
+                ontSum = ontSum.add(row.amount);
+            } else {
+                ongSum = ongSum.add(row.amount);
+            }
+            addresses.add(row.fromAddress);
+            addresses.add(row.toAddress);
+        }
+
+        private ContractTotals finish() {
+            ongSum = ongSum.divide(Constants.ONG_TOTAL, 9, RoundingMode.HALF_DOWN);
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,468 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Stand-in for the REST interface of an Ontology node, serving what the services read through the SDK: the block
+ * height and the governance contract storage for the governance view, the peer pool, the peer attributes and the
+ * vbft configuration.
+ * <p>
+ * The height grows with wall time from the start height by one block per block interval, and a new governance view
+ * begins every round of blocks. The stake of every peer moves by a fixed step per view, so the ranking changes from
+ * round to round. Every request waits the latency plus a random jitter and then fails with HTTP 500 at the error
+ * rate, which can be changed while running to script outages. Storage values are encoded the way the governance
+ * contract stores them: little endian integers, length prefixed strings and raw 20 byte addresses.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.ontio.explorer.statistics.benchmark.FakeOntologyNode \
+ *     -Dexec.args="--nodes=3 --down-nodes=1 --latency=50 --jitter=50"
+ * </pre>
+ * starts three nodes on consecutive ports, the first answering every request with an error, and prints the
+ * {@code config.hosts} to run the application against.
+ */
+@Slf4j
+public class FakeOntologyNode implements AutoCloseable {
+
+    /**
+     * Governance contract address with its bytes reversed, as it appears in the storage URL.
+     */
+    static final String GOVERNANCE_CONTRACT = "0700000000000000000000000000000000000000";
+
+    private static final String STORAGE_PATH = "/api/v1/storage/";
+
+    private static final String GOVERNANCE_VIEW = "governanceView";
+
+    private static final String PEER_POOL = "peerPool";
+
+    private static final String PEER_ATTRIBUTES = "peerAttributes";
+
+    private static final String VBFT_CONFIG = "vbftConfig";
+
+    private static final int CONSENSUS_STATUS = 2;
+
+    private static final int CANDIDATE_STATUS = 1;
+
+    private final Options options;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final List<Peer> peers;
+
+    private final Map<String, Peer> peersByPublicKey = new HashMap<>();
+
+    private final Map<String, LongAdder> requestCounts = new HashMap<>();
+
+    private final LongAdder errorCount = new LongAdder();
+
+    private final long startMillis = System.currentTimeMillis();
+
+    private volatile double errorRate;
+
+    public FakeOntologyNode(Options options) throws IOException {
+        this.options = options;
+        this.errorRate = options.errorRate;
+        Random random = new Random(options.seed);
+        this.peers = new ArrayList<>(options.peerCount);
+        for (int i = 0; i < options.peerCount; i++) {
+            Peer peer = new Peer(i, random, i < options.consensusCount ? CONSENSUS_STATUS : CANDIDATE_STATUS);
+            peers.add(peer);
+            peersByPublicKey.put(peer.publicKey, peer);
+        }
+        for (String kind : new String[]{"blockHeight", GOVERNANCE_VIEW, PEER_POOL, PEER_ATTRIBUTES, VBFT_CONFIG, "other"}) {
+            requestCounts.put(kind, new LongAdder());
+        }
+        this.server = HttpServer.create(new InetSocketAddress(options.host, options.port), 0);
+        this.executor = Executors.newFixedThreadPool(options.threads);
+        server.setExecutor(executor);
+        server.createContext("/api/v1/block/height", exchange -> handle(exchange, "getblockheight", path -> {
+            requestCounts.get("blockHeight").increment();
+            return getBlockHeight();
+        }));
+        server.createContext(STORAGE_PATH, exchange -> handle(exchange, "getstorage", this::getStorage));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Arguments arguments = new Arguments(args);
+        int nodeCount = arguments.integer("nodes", 1);
+        int downNodes = arguments.integer("down-nodes", 0);
+        Options options = Options.parse(arguments);
+        arguments.checkAllUsed();
+        List<FakeOntologyNode> nodes = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            Options nodeOptions = options.withPort(options.port + i);
+            FakeOntologyNode node = new FakeOntologyNode(nodeOptions).start();
+            if (i < downNodes) {
+                node.setErrorRate(1);
+            }
+            nodes.add(node);
+            urls.add(node.getUrl());
+        }
+        log.info("Run the application with --config.hosts={}", String.join(",", urls));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> nodes.forEach(FakeOntologyNode::close)));
+    }
+
+    public FakeOntologyNode start() {
+        server.start();
+        log.info("Fake ontology node listening on {} with {} peers at height {}", getUrl(), peers.size(), getBlockHeight());
+        return this;
+    }
+
+    public String getUrl() {
+        return "http://" + options.host + ":" + server.getAddress().getPort();
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public long getBlockHeight() {
+        return options.startHeight + (System.currentTimeMillis() - startMillis) / options.blockInterval;
+    }
+
+    public long getRequestCount(String kind) {
+        LongAdder count = requestCounts.get(kind);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        Map<String, Long> counts = new HashMap<>();
+        requestCounts.forEach((kind, count) -> counts.put(kind, count.sum()));
+        log.info("Fake ontology node {} stopped after requests {} and {} errors", getUrl(), counts, getErrorCount());
+    }
+
+    private void handle(HttpExchange exchange, String action, Function<String, Object> result) throws IOException {
+        try {
+            long delay = options.latency + (options.jitter > 0 ? ThreadLocalRandom.current().nextLong(options.jitter + 1) : 0);
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+            JSONObject body = new JSONObject();
+            body.put("Action", action);
+            body.put("Version", "1.0.0");
+            int status = 200;
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errorCount.increment();
+                status = 500;
+                body.put("Desc", "INTERNAL ERROR");
+                body.put("Error", 45001);
+                body.put("Result", "");
+            } else {
+                body.put("Desc", "SUCCESS");
+                body.put("Error", 0);
+                body.put("Result", result.apply(exchange.getRequestURI().getPath()));
+            }
+            byte[] bytes = body.toJSONString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Path is {@code /api/v1/storage/{contract}/{key}}, both hex. Unknown keys read as empty like missing storage.
+     */
+    private String getStorage(String path) {
+        String[] parts = path.substring(STORAGE_PATH.length()).split("/");
+        if (parts.length != 2 || !GOVERNANCE_CONTRACT.equalsIgnoreCase(parts[0])) {
+            requestCounts.get("other").increment();
+            return "";
+        }
+        byte[] key = hexToBytes(parts[1]);
+        String name = new String(key, StandardCharsets.ISO_8859_1);
+        long height = getBlockHeight();
+        int view = (int) (height / options.roundBlocks) + 1;
+        if (name.equals(GOVERNANCE_VIEW)) {
+            requestCounts.get(GOVERNANCE_VIEW).increment();
+            return encodeGovernanceView(view, (view - 1L) * options.roundBlocks);
+        }
+        if (name.startsWith(PEER_POOL)) {
+            requestCounts.get(PEER_POOL).increment();
+            return encodePeerPool(view);
+        }
+        if (name.startsWith(PEER_ATTRIBUTES)) {
+            requestCounts.get(PEER_ATTRIBUTES).increment();
+            Peer peer = peersByPublicKey.get(bytesToHex(key, PEER_ATTRIBUTES.length()));
+            return peer == null ? "" : encodePeerAttributes(peer);
+        }
+        if (name.equals(VBFT_CONFIG)) {
+            requestCounts.get(VBFT_CONFIG).increment();
+            return encodeConfiguration();
+        }
+        requestCounts.get("other").increment();
+        return "";
+    }
+
+    private String encodeGovernanceView(int view, long viewHeight) {
+        StorageWriter writer = new StorageWriter();
+        writer.writeInt(view);
+        writer.writeInt((int) viewHeight);
+        writer.write(new byte[32]);
+        return writer.toHex();
+    }
+
+    private String encodePeerPool(int view) {
+        StorageWriter writer = new StorageWriter();
+        writer.writeInt(peers.size());
+        for (Peer peer : peers) {
+            writer.writeInt(peer.index);
+            writer.writeVarString(peer.publicKey);
+            writer.write(peer.address);
+            writer.writeByte(peer.status);
+            writer.writeLong(peer.initPos);
+            writer.writeLong(peer.totalPos(view));
+        }
+        return writer.toHex();
+    }
+
+    private String encodePeerAttributes(Peer peer) {
+        StorageWriter writer = new StorageWriter();
+        writer.writeVarString(peer.publicKey);
+        writer.writeLong(peer.maxAuthorize);
+        writer.writeLong(peer.peerCost);
+        writer.writeLong(peer.peerCost);
+        writer.writeLong(peer.peerCost);
+        for (int i = 0; i < 4; i++) {
+            writer.writeVarString("");
+        }
+        return writer.toHex();
+    }
+
+    /**
+     * N, C, K, L, block and hash message delays, peer handshake timeout and the blocks per round.
+     */
+    private String encodeConfiguration() {
+        StorageWriter writer = new StorageWriter();
+        writer.writeInt(options.consensusCount);
+        writer.writeInt((options.consensusCount - 1) / 3);
+        writer.writeInt(options.consensusCount);
+        writer.writeInt(options.consensusCount * 16);
+        writer.writeInt(10000);
+        writer.writeInt(10000);
+        writer.writeInt(10);
+        writer.writeInt(options.roundBlocks);
+        return writer.toHex();
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static String bytesToHex(byte[] bytes, int offset) {
+        StringBuilder hex = new StringBuilder();
+        for (int i = offset; i < bytes.length; i++) {
+            hex.append(String.format("%02x", bytes[i] & 0xff));
+        }
+        return hex.toString();
+    }
+
+    private static class Peer {
+
+        private final int index;
+
+        private final String publicKey;
+
+        private final byte[] address = new byte[20];
+
+        private final int status;
+
+        private final long initPos;
+
+        private final long baseTotalPos;
+
+        /**
+         * Change of the authorized stake per governance view, negative for peers losing stake.
+         */
+        private final long stakeStep;
+
+        private final long maxAuthorize;
+
+        private final long peerCost;
+
+        private Peer(int index, Random random, int status) {
+            this.index = index + 1;
+            this.publicKey = SyntheticData.publicKey(random);
+            random.nextBytes(address);
+            this.status = status;
+            this.initPos = 10000L + random.nextInt(500000);
+            this.baseTotalPos = random.nextInt(5000000);
+            this.stakeStep = random.nextInt(20000) - 5000;
+            this.maxAuthorize = initPos * (1 + random.nextInt(10));
+            this.peerCost = random.nextInt(101);
+        }
+
+        private long totalPos(int view) {
+            return Math.max(0, baseTotalPos + stakeStep * view);
+        }
+
+    }
+
+    /**
+     * Little endian serialization of the governance contract storage.
+     */
+    private static class StorageWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private void writeByte(int value) {
+            out.write(value);
+        }
+
+        private void writeInt(int value) {
+            for (int i = 0; i < 4; i++) {
+                out.write(value >>> (8 * i));
+            }
+        }
+
+        private void writeLong(long value) {
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (value >>> (8 * i)));
+            }
+        }
+
+        private void write(byte[] bytes) {
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length < 0xfd) {
+                writeByte(bytes.length);
+            } else if (bytes.length <= 0xffff) {
+                writeByte(0xfd);
+                writeByte(bytes.length);
+                writeByte(bytes.length >>> 8);
+            } else {
+                writeByte(0xfe);
+                writeInt(bytes.length);
+            }
+            write(bytes);
+        }
+
+        private String toHex() {
+            return bytesToHex(out.toByteArray(), 0);
+        }
+
+    }
+
+    /**
+     * Command line arguments, see {@link Arguments}.
+     */
+    public static class Options {
+
+        String host;
+
+        int port;
+
+        /**
+         * Milliseconds every request waits before it is answered, plus a random jitter of up to {@link #jitter}.
+         */
+        long latency;
+
+        long jitter;
+
+        double errorRate;
+
+        long startHeight;
+
+        /**
+         * Milliseconds per block.
+         */
+        long blockInterval;
+
+        /**
+         * Blocks per governance view.
+         */
+        int roundBlocks;
+
+        int peerCount;
+
+        int consensusCount;
+
+        long seed;
+
+        int threads;
+
+        public static Options parse(String... args) {
+            Arguments arguments = new Arguments(args);
+            Options options = parse(arguments);
+            arguments.checkAllUsed();
+            return options;
+        }
+
+        static Options parse(Arguments arguments) {
+            Options options = new Options();
+            options.host = arguments.string("host", "127.0.0.1");
+            options.port = arguments.integer("port", 20334);
+            options.latency = arguments.longValue("latency", 20);
+            options.jitter = arguments.longValue("jitter", 10);
+            options.errorRate = arguments.decimal("error-rate", 0);
+            options.startHeight = arguments.longValue("start-height", 8000000);
+            options.blockInterval = arguments.longValue("block-interval", 1000);
+            options.roundBlocks = arguments.integer("round-blocks", 120000);
+            options.peerCount = arguments.integer("peers", 80);
+            options.consensusCount = arguments.integer("consensus-peers", 7);
+            options.seed = arguments.longValue("seed", 42);
+            options.threads = arguments.integer("threads", 32);
+            return options;
+        }
+
+        Options withPort(int port) {
+            Options options = new Options();
+            options.host = host;
+            options.port = port;
+            options.latency = latency;
+            options.jitter = jitter;
+            options.errorRate = errorRate;
+            options.startHeight = startHeight;
+            options.blockInterval = blockInterval;
+            options.roundBlocks = roundBlocks;
+            options.peerCount = peerCount;
+            options.consensusCount = consensusCount;
+            options.seed = seed;
+            options.threads = threads;
+            return options;
+        }
+
+    }
+
+}
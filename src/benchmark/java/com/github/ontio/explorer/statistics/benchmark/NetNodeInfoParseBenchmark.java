@@ -0,0 +1,95 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ontio.explorer.statistics.model.NetNodeInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a node map feed, once streamed element by element with {@link NetNodeInfo#readFrom(JSONReader)} and once
+ * bound as a whole to a list of maps like a plain REST client response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetNodeInfoParseBenchmark {
+
+    private static final TypeReference<List<LinkedHashMap<String, Object>>> NODE_LIST =
+            new TypeReference<List<LinkedHashMap<String, Object>>>() {
+            };
+
+    @Param({"1000", "20000"})
+    private int nodeCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] feed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Map<String, Object>> nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("ip", random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+            node.put("soft_version", "v1." + random.nextInt(20) + "." + random.nextInt(10));
+            node.put("is_consensus", random.nextInt(20) == 0);
+            node.put("can_connect", random.nextBoolean());
+            node.put("last_active_time", 1560000000L + random.nextInt(10000000));
+            node.put("country", "Country" + random.nextInt(100));
+            node.put("lat", random.nextDouble() * 180 - 90);
+            node.put("lon", random.nextDouble() * 360 - 180);
+            node.put("height", random.nextInt(10000000));
+            nodes.add(node);
+        }
+        feed = JSON.toJSONString(nodes).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int streamingReadFrom(Blackhole blackhole) {
+        int count = 0;
+        try (JSONReader reader = new JSONReader(new InputStreamReader(new ByteArrayInputStream(feed), StandardCharsets.UTF_8))) {
+            reader.startArray();
+            while (reader.hasNext()) {
+                blackhole.consume(NetNodeInfo.readFrom(reader));
+                count++;
+            }
+            reader.endArray();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<LinkedHashMap<String, Object>> bindToMaps() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(feed), NODE_LIST);
+    }
+
+}
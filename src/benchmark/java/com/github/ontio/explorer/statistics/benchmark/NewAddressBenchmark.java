@@ -0,0 +1,150 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the addresses of a day that were never seen before: as the daily summary did before the address bitmaps, with
+ * {@code ArrayList.removeAll} over the list of known addresses, then with the known addresses in a hash set, and
+ * with their ids in roaring bitmaps as stored by the address bitmap service.
+ * <p>
+ * The old path scans the known list once per active address, so its cost is the product of both counts and the
+ * known counts stay at sizes where it still completes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class NewAddressBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int knownCount;
+
+    @Param({"20000"})
+    private int activeCount;
+
+    /**
+     * Share of the active addresses that were never seen before.
+     */
+    @Param({"0.1"})
+    private double newRatio;
+
+    private List<String> knownAddresses;
+
+    private Set<String> knownSet;
+
+    private List<String> activeAddresses;
+
+    private RoaringBitmap knownIds;
+
+    private byte[] knownBitmap;
+
+    private RoaringBitmap activeIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        knownAddresses = new ArrayList<>(knownCount);
+        knownIds = new RoaringBitmap();
+        for (int i = 0; i < knownCount; i++) {
+            knownAddresses.add(SyntheticData.address(random));
+            knownIds.add(i);
+        }
+        knownIds.runOptimize();
+        knownSet = new HashSet<>(knownAddresses);
+        knownBitmap = serialize(knownIds);
+
+        activeAddresses = new ArrayList<>(activeCount);
+        activeIds = new RoaringBitmap();
+        int nextId = knownCount;
+        for (int i = 0; i < activeCount; i++) {
+            if (random.nextDouble() < newRatio) {
+                activeAddresses.add(SyntheticData.address(random));
+                activeIds.add(nextId++);
+            } else {
+                int id = random.nextInt(knownCount);
+                activeAddresses.add(knownAddresses.get(id));
+                activeIds.add(id);
+            }
+        }
+    }
+
+    /**
+     * The path before the bitmaps, the known addresses loaded as a list and removed with {@code removeAll}, which
+     * calls {@code List.contains} for every active address.
+     */
+    @Benchmark
+    public int listRemoveAll() {
+        List<String> newAddresses = new ArrayList<>(activeAddresses);
+        newAddresses.removeAll(knownAddresses);
+        return newAddresses.size();
+    }
+
+    /**
+     * Known addresses already held in a hash set.
+     */
+    @Benchmark
+    public int hashSetDifference() {
+        List<String> newAddresses = new ArrayList<>(activeAddresses);
+        newAddresses.removeAll(knownSet);
+        return newAddresses.size();
+    }
+
+    /**
+     * Known addresses loaded as a list and hashed for every run, the smallest change to the old path.
+     */
+    @Benchmark
+    public int hashSetBuildAndDifference() {
+        Set<String> known = new HashSet<>(knownAddresses);
+        List<String> newAddresses = new ArrayList<>(activeAddresses);
+        newAddresses.removeAll(known);
+        return newAddresses.size();
+    }
+
+    @Benchmark
+    public int roaringDifference() {
+        return RoaringBitmap.andNot(activeIds, knownIds).getCardinality();
+    }
+
+    /**
+     * Known ids read from their stored form first, as the address bitmap service does.
+     */
+    @Benchmark
+    public int roaringDeserializeAndDifference() throws IOException {
+        RoaringBitmap known = new RoaringBitmap();
+        known.deserialize(new DataInputStream(new ByteArrayInputStream(knownBitmap)));
+        return RoaringBitmap.andNot(activeIds, known).getCardinality();
+    }
+
+    private static byte[] serialize(RoaringBitmap bitmap) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+        bitmap.serialize(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,344 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.github.ontio.explorer.statistics.ExplorerStatisticsApplication;
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.StatementMetricsInterceptor;
+import com.github.ontio.explorer.statistics.mapper.DailySummaryMapper;
+import com.github.ontio.explorer.statistics.task.DailyInfoSchedule;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the daily summary and the approved contract info update end to end on generated data and reports wall time,
+ * statements issued, rows read and written and peak heap of each.
+ * <p>
+ * The database is an in-memory H2 in MySQL mode unless a {@code --url} is given. The tables are created from the
+ * {@code sql/} scripts for the in-memory database or with {@code --create-schema}, loaded by
+ * {@link SyntheticChainGenerator}, which takes the remaining arguments, and the tables written by the pipeline are
+ * emptied, so every run starts from the same state. {@code --skip-load} reuses the chain data already in the database.
+ * The application context starts without web server and without scheduled tasks, statements are counted by the
+ * {@link StatementMetricsInterceptor} and the report is also written as JSON to {@code --report}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.ontio.explorer.statistics.benchmark.PipelineBenchmark \
+ *     -Dexec.args="--days=30 --tx-per-day=200000"
+ * </pre>
+ */
+@Slf4j
+public class PipelineBenchmark {
+
+    private static final String EMBEDDED_URL = "jdbc:h2:mem:pipeline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String[] PIPELINE_TABLES = {"tbl_daily_summary", "tbl_contract_daily_summary",
+            "tbl_tx_detail_tmp", "tbl_tx_detail_daily", "tbl_address_daily_summary", "tbl_address_id",
+            "tbl_address_daily_bitmap", "tbl_address_lifetime_bitmap"};
+
+    private static final String TX_DETAIL_COLUMNS = "tx_hash, tx_type, tx_time, block_height, amount, fee, asset_name, "
+            + "from_address, to_address, description, block_index, tx_index, confirm_flag, event_type, contract_hash, "
+            + "payer, called_contract_hash";
+
+    private static final int TOP_STATEMENTS = 10;
+
+    private final ConfigurableApplicationContext context;
+
+    private final StatementMetricsInterceptor statementMetrics;
+
+    private final Configuration configuration;
+
+    private PipelineBenchmark(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.statementMetrics = context.getBean(StatementMetricsInterceptor.class);
+        this.configuration = context.getBean(SqlSessionFactory.class).getConfiguration();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> generatorArgs = new ArrayList<>();
+        Path reportPath = Paths.get("target", "pipeline-result.json");
+        boolean load = true;
+        Boolean createSchema = null;
+        for (String arg : args) {
+            if (arg.startsWith("--report=")) {
+                reportPath = Paths.get(arg.substring("--report=".length()));
+            } else if (arg.equals("--skip-load")) {
+                load = false;
+            } else if (arg.startsWith("--create-schema")) {
+                createSchema = !arg.endsWith("=false");
+            } else {
+                generatorArgs.add(arg);
+            }
+        }
+        if (generatorArgs.stream().noneMatch(arg -> arg.startsWith("--url="))) {
+            generatorArgs.add("--url=" + EMBEDDED_URL);
+            if (generatorArgs.stream().noneMatch(arg -> arg.startsWith("--user="))) {
+                generatorArgs.add("--user=sa");
+            }
+        }
+        SyntheticChainGenerator.Options options = SyntheticChainGenerator.Options.parse(generatorArgs.toArray(new String[0]));
+        if (createSchema == null) {
+            createSchema = options.url.startsWith("jdbc:h2:mem:");
+        }
+
+        try (Connection connection = DriverManager.getConnection(
+                SyntheticChainGenerator.withBatchRewrite(options.url), options.user, options.password)) {
+            if (createSchema) {
+                createSchema(connection, options.schemaDir);
+            }
+            if (load) {
+                new SyntheticChainGenerator(options).load(connection);
+            }
+            truncate(connection, PIPELINE_TABLES);
+            replayLastDay(connection, options);
+        }
+
+        Map<String, Object> datasource = new HashMap<>();
+        datasource.put("spring.datasource.url", options.url);
+        datasource.put("spring.datasource.username", options.user);
+        datasource.put("spring.datasource.password", options.password);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExplorerStatisticsApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(ctx -> {
+                    ctx.getEnvironment().getPropertySources().addFirst(new MapPropertySource("pipelineBenchmark", datasource));
+                    ctx.addBeanFactoryPostProcessor(PipelineBenchmark::disableScheduling);
+                })
+                .run()) {
+            Report report = new PipelineBenchmark(context).run(options);
+            Path parent = reportPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(reportPath, JSON.toJSONString(report, SerializerFeature.PrettyFormat).getBytes(StandardCharsets.UTF_8));
+            log.info("Report written to {}", reportPath.toAbsolutePath());
+        }
+    }
+
+    private Report run(SyntheticChainGenerator.Options options) {
+        DailyInfoSchedule schedule = context.getBean(DailyInfoSchedule.class);
+        Report report = new Report();
+        report.setDatabase(options.url.replaceAll("(?i)password=[^&;]*", "password=***"));
+        report.setDays(options.days);
+        report.setTxPerDay(options.txPerDay);
+        report.getPhases().add(measure("updateDailySummary", schedule::updateDailyInfo));
+        report.getPhases().add(measure("updateApprovedContractInfo", schedule::updateApprovedContractInfo));
+
+        Integer maxTime = context.getBean(DailySummaryMapper.class).selectMaxTime();
+        report.setSummarizedDays(maxTime == null ? 0 : (maxTime - options.startTime) / Constants.ONE_DAY_IN_SEC + 1);
+        if (report.getSummarizedDays() != options.days) {
+            log.warn("Summarized {} days but generated {}, see the pipeline log for errors", report.getSummarizedDays(), options.days);
+        }
+        for (Phase phase : report.getPhases()) {
+            log.info("{}: {} ms, {} statements, {} rows read, {} rows written, peak heap {} MB, GC {} ms",
+                    phase.getName(), phase.getWallMillis(), phase.getStatements(), phase.getRowsRead(), phase.getRowsWritten(),
+                    phase.getPeakHeapBytes() >> 20, phase.getGcMillis());
+            for (StatementDelta statement : phase.getTopStatements()) {
+                log.info("    {}: {} calls, {} rows, {} ms", statement.getId(), statement.getCalls(),
+                        statement.getRows(), statement.getTotalMillis());
+            }
+        }
+        return report;
+    }
+
+    private Phase measure(String name, Runnable task) {
+        Map<String, StatementDelta> before = snapshot();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+
+        Phase phase = new Phase();
+        phase.setName(name);
+        phase.setWallMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        phase.setGcMillis(gcMillis() - gcBefore);
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        phase.setPeakHeapBytes(peak);
+
+        List<StatementDelta> statements = new ArrayList<>();
+        for (StatementDelta after : snapshot().values()) {
+            StatementDelta delta = after.minus(before.get(after.getId()));
+            if (delta.getCalls() == 0) {
+                continue;
+            }
+            statements.add(delta);
+            phase.setStatements(phase.getStatements() + delta.getCalls());
+            if (isSelect(delta.getId())) {
+                phase.setRowsRead(phase.getRowsRead() + delta.getRows());
+            } else {
+                phase.setRowsWritten(phase.getRowsWritten() + delta.getRows());
+            }
+        }
+        statements.sort(Comparator.comparingDouble(StatementDelta::getTotalMillis).reversed());
+        phase.setTopStatements(statements.subList(0, Math.min(TOP_STATEMENTS, statements.size())));
+        return phase;
+    }
+
+    /**
+     * Copies the counters, the interceptor keeps updating its own instances.
+     */
+    private Map<String, StatementDelta> snapshot() {
+        Map<String, StatementDelta> snapshot = new HashMap<>();
+        for (StatementMetricsInterceptor.StatementStats stats : statementMetrics.getTopStatements(Integer.MAX_VALUE, "calls")) {
+            snapshot.put(stats.getId(), new StatementDelta(stats.getId(), stats.getCalls(), stats.getRows(), stats.getTotalMillis()));
+        }
+        return snapshot;
+    }
+
+    private boolean isSelect(String id) {
+        return configuration.hasStatement(id, false)
+                && configuration.getMappedStatement(id, false).getSqlCommandType() == SqlCommandType.SELECT;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static void disableScheduling(ConfigurableListableBeanFactory beanFactory) {
+        BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+        if (registry.containsBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+            registry.removeBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+        }
+    }
+
+    private static void createSchema(Connection connection, Path schemaDir) throws IOException, SQLException {
+        try (DirectoryStream<Path> scripts = Files.newDirectoryStream(schemaDir, "tbl_*.sql")) {
+            for (Path script : scripts) {
+                SqlScripts.run(connection, script);
+            }
+        }
+        log.info("Created tables from {}", schemaDir.toAbsolutePath());
+    }
+
+    /**
+     * The contract info update reads the transactions of the day not summarized yet, which the generated days lack,
+     * so the last generated day is copied there one day later.
+     */
+    private static void replayLastDay(Connection connection, SyntheticChainGenerator.Options options) throws SQLException {
+        int lastDay = options.startTime + (options.days - 1) * Constants.ONE_DAY_IN_SEC;
+        String sql = "INSERT INTO tbl_tx_detail_daily (" + TX_DETAIL_COLUMNS + ") SELECT "
+                + TX_DETAIL_COLUMNS.replace("tx_time", "tx_time + " + Constants.ONE_DAY_IN_SEC)
+                + " FROM tbl_tx_detail WHERE tx_time >= ? AND tx_time < ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, lastDay);
+            statement.setInt(2, lastDay + Constants.ONE_DAY_IN_SEC);
+            log.info("Replayed {} transfers of the last day as the current day", statement.executeUpdate());
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private static void truncate(Connection connection, String... tables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                statement.execute("TRUNCATE TABLE " + table);
+            }
+        }
+    }
+
+    @Data
+    public static class Report {
+
+        private String database;
+
+        private int days;
+
+        private int txPerDay;
+
+        private int summarizedDays;
+
+        private List<Phase> phases = new ArrayList<>();
+
+    }
+
+    @Data
+    public static class Phase {
+
+        private String name;
+
+        private long wallMillis;
+
+        private long statements;
+
+        private long rowsRead;
+
+        private long rowsWritten;
+
+        /**
+         * Sum of the peaks of the heap pools while the phase ran, starting after a full collection.
+         */
+        private long peakHeapBytes;
+
+        private long gcMillis;
+
+        private List<StatementDelta> topStatements;
+
+    }
+
+    @Data
+    public static class StatementDelta {
+
+        private final String id;
+
+        private final long calls;
+
+        private final long rows;
+
+        private final double totalMillis;
+
+        private StatementDelta minus(StatementDelta before) {
+            if (before == null) {
+                return this;
+            }
+            return new StatementDelta(id, calls - before.calls, rows - before.rows, totalMillis - before.totalMillis);
+        }
+
+    }
+
+}
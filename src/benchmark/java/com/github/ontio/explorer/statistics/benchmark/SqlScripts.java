@@ -0,0 +1,82 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the table scripts under {@code sql/} over JDBC, on MySQL or on H2 in MySQL mode.
+ */
+public final class SqlScripts {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)CREATE TABLE (?:IF NOT EXISTS )?`?(\\w+)`?");
+
+    private static final Pattern INDEX_NAME = Pattern.compile("(?i)\\b(KEY|INDEX)\\s+`?(\\w+)`?(?=\\s*\\()");
+
+    private SqlScripts() {
+    }
+
+    public static void run(Connection connection, Path script) throws IOException, SQLException {
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : split(new String(Files.readAllBytes(script), StandardCharsets.UTF_8))) {
+                statement.execute(h2 ? toH2(sql) : sql);
+            }
+        }
+    }
+
+    /**
+     * H2 knows neither index methods nor the binary collation, and its index names are unique per schema rather
+     * than per table, so they are prefixed with the table name.
+     */
+    static String toH2(String sql) {
+        sql = sql.replace(" USING BTREE", "").replaceAll("(?i) COLLATE utf8_bin", "");
+        Matcher table = CREATE_TABLE.matcher(sql);
+        if (table.find()) {
+            sql = INDEX_NAME.matcher(sql).replaceAll("$1 `" + table.group(1) + "_$2`");
+        }
+        return sql;
+    }
+
+    /**
+     * Splits on semicolons ending a line, dropping block and line comments outside of the statements.
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inBlockComment = false;
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (inBlockComment) {
+                inBlockComment = !trimmed.endsWith("*/");
+                continue;
+            }
+            if (trimmed.startsWith("/*")) {
+                inBlockComment = !trimmed.endsWith("*/");
+                continue;
+            }
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+}
@@ -0,0 +1,461 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads synthetic chain data into {@code tbl_block}, {@code tbl_tx_detail}, {@code tbl_ontid_tx_detail} and
+ * {@code tbl_contract}, so the statistics pipeline can be sized without a copy of mainnet.
+ * <p>
+ * Every day gets evenly spaced blocks carrying native ONT and ONG transfers and calls to OEP-4, OEP-5, OEP-8 and
+ * other contracts, each with its fee event, plus ONT ID registrations and updates. Senders and called contracts follow
+ * a power law, and the address pool grows over the days so every day brings new addresses. The days start at the
+ * genesis time and one more block follows the last day, so the pipeline summarizes exactly the generated days on an
+ * empty database. Rows are written in JDBC batches, rewritten into multi-row inserts for MySQL.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.ontio.explorer.statistics.benchmark.SyntheticChainGenerator \
+ *     -Dexec.args="--url=jdbc:mysql://localhost:3306/explorer --user=root --password=root --days=30"
+ * </pre>
+ * See {@link Options} for the other arguments.
+ */
+@Slf4j
+public class SyntheticChainGenerator {
+
+    static final String ONT_CONTRACT = "0100000000000000000000000000000000000000";
+
+    static final String ONG_CONTRACT = "0200000000000000000000000000000000000000";
+
+    static final String[] TABLES = {"tbl_block", "tbl_tx_detail", "tbl_ontid_tx_detail", "tbl_contract"};
+
+    private static final String GOVERNANCE_ADDRESS = "AFmseVrdL9f9oyCzZefL9tG6UbviEH9ugK";
+
+    /**
+     * 0.01 ONG, in the fee column and as raw ONG amount of the fee event.
+     */
+    private static final BigDecimal FEE = new BigDecimal("0.01");
+
+    private static final BigDecimal FEE_AMOUNT = new BigDecimal(10000000);
+
+    private static final int TX_TYPE_INVOKE = 209;
+
+    private static final int EVENT_TYPE_FEE = 2;
+
+    private static final int EVENT_TYPE_TRANSFER = 3;
+
+    private final Options options;
+
+    private final Random random;
+
+    private final List<String> addresses;
+
+    private final List<SyntheticContract> contracts;
+
+    private final List<String> ontIds = new ArrayList<>();
+
+    private long blockCount;
+
+    private long txCount;
+
+    private long ontIdEventCount;
+
+    public SyntheticChainGenerator(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+        this.addresses = new ArrayList<>(options.addressCount);
+        for (int i = 0; i < options.addressCount; i++) {
+            addresses.add(SyntheticData.address(random));
+        }
+        this.contracts = new ArrayList<>(options.contractCount);
+        for (int i = 0; i < options.contractCount; i++) {
+            contracts.add(new SyntheticContract(i));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        try (Connection connection = DriverManager.getConnection(withBatchRewrite(options.url), options.user, options.password)) {
+            new SyntheticChainGenerator(options).load(connection);
+        }
+    }
+
+    public void load(Connection connection) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            prepare(connection);
+            writeContracts(connection);
+            try (BatchWriter blocks = new BatchWriter(connection, "tbl_block", options.batchSize,
+                    "block_height", "block_hash", "txs_root", "block_time", "consensus_data", "bookkeepers", "tx_count", "block_size");
+                 BatchWriter txs = new BatchWriter(connection, "tbl_tx_detail", options.batchSize,
+                         "tx_hash", "tx_type", "tx_time", "block_height", "amount", "fee", "asset_name", "from_address",
+                         "to_address", "description", "block_index", "tx_index", "confirm_flag", "event_type",
+                         "contract_hash", "payer", "called_contract_hash");
+                 BatchWriter ontIdTxs = new BatchWriter(connection, "tbl_ontid_tx_detail", options.batchSize,
+                         "tx_hash", "tx_type", "ontid", "tx_time", "block_height", "description", "fee")) {
+                for (int day = 0; day < options.days; day++) {
+                    writeDay(day, blocks, txs, ontIdTxs);
+                    log.info("Generated day {} of {}: {} blocks, {} transactions, {} ONT ID events so far",
+                            day + 1, options.days, blockCount, txCount, ontIdEventCount);
+                }
+                int endTime = options.startTime + options.days * Constants.ONE_DAY_IN_SEC;
+                writeBlock(blocks, endTime + options.blockInterval, 0);
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        log.info("Loaded {} days, {} contracts, {} blocks, {} transactions and {} ONT ID events in {} ms",
+                options.days, contracts.size(), blockCount, txCount, ontIdEventCount, System.currentTimeMillis() - start);
+    }
+
+    private void prepare(Connection connection) throws SQLException, IOException {
+        if (options.createSchema) {
+            for (String table : TABLES) {
+                SqlScripts.run(connection, options.schemaDir.resolve(table + ".sql"));
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (isMySql(connection)) {
+                statement.execute("SET unique_checks = 0");
+                statement.execute("SET foreign_key_checks = 0");
+            }
+            if (options.truncate) {
+                for (String table : TABLES) {
+                    statement.execute("TRUNCATE TABLE " + table);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private void writeContracts(Connection connection) throws SQLException {
+        int createTime = options.startTime - Constants.ONE_DAY_IN_SEC;
+        try (BatchWriter writer = new BatchWriter(connection, "tbl_contract", options.batchSize,
+                "contract_hash", "name", "abi", "code", "source_code", "create_time", "update_time", "audit_flag",
+                "contact_info", "description", "type", "logo", "creator", "address_count", "tx_count", "ont_sum",
+                "ong_sum", "token_sum", "category", "dapp_name", "dappstore_flag")) {
+            for (SyntheticContract contract : contracts) {
+                writer.add(contract.hash, contract.name, "", "", "", createTime, createTime, contract.approved ? 1 : 0,
+                        "", "", contract.type, "", addresses.get(random.nextInt(addresses.size())), 0, 0,
+                        Constants.ZERO, Constants.ZERO, "[]", "", contract.name, contract.dappstore ? 1 : 0);
+            }
+        }
+    }
+
+    private void writeDay(int day, BatchWriter blocks, BatchWriter txs, BatchWriter ontIdTxs) throws SQLException {
+        int dayStart = options.startTime + day * Constants.ONE_DAY_IN_SEC;
+        long dayFirstHeight = blockCount;
+        int activeAddresses = Math.max(1, (int) ((long) addresses.size() * (day + 1) / options.days));
+        int blocksPerDay = Constants.ONE_DAY_IN_SEC / options.blockInterval;
+        double txPerBlock = (double) options.txPerDay / blocksPerDay;
+        for (int i = 0; i < blocksPerDay; i++) {
+            int blockTime = dayStart + i * options.blockInterval;
+            int blockTxCount = (int) txPerBlock + (random.nextDouble() < txPerBlock - (int) txPerBlock ? 1 : 0);
+            for (int index = 0; index < blockTxCount; index++) {
+                writeTransaction(txs, blockTime, blockCount, index, activeAddresses);
+            }
+            writeBlock(blocks, blockTime, blockTxCount);
+        }
+        for (int i = 0; i < options.ontIdEventsPerDay; i++) {
+            int offset = random.nextInt(Constants.ONE_DAY_IN_SEC);
+            writeOntIdEvent(ontIdTxs, dayStart + offset, dayFirstHeight + offset / options.blockInterval);
+        }
+    }
+
+    private void writeBlock(BatchWriter blocks, int blockTime, int blockTxCount) throws SQLException {
+        blocks.add(blockCount, SyntheticData.hex(random, 64), SyntheticData.hex(random, 64), blockTime, "", "",
+                blockTxCount, 200 + 500 * blockTxCount);
+        blockCount++;
+    }
+
+    private void writeTransaction(BatchWriter txs, int txTime, long height, int blockIndex, int activeAddresses)
+            throws SQLException {
+        String txHash = SyntheticData.hex(random, 64);
+        int confirmFlag = random.nextDouble() < options.failureRate ? 0 : 1;
+        String from = addresses.get(SyntheticData.skewedIndex(random, activeAddresses, options.skew));
+        String to = addresses.get(random.nextInt(activeAddresses));
+        String assetName;
+        String contractHash;
+        String calledContractHash;
+        BigDecimal amount;
+        if (random.nextDouble() < options.nativeShare) {
+            boolean ont = random.nextDouble() < options.ontShare;
+            assetName = ont ? Constants.ONT : Constants.ONG;
+            contractHash = ont ? ONT_CONTRACT : ONG_CONTRACT;
+            calledContractHash = contractHash;
+            amount = ont ? BigDecimal.valueOf(1 + random.nextInt(10000)) : ongAmount();
+        } else {
+            SyntheticContract contract = contracts.get(SyntheticData.skewedIndex(random, contracts.size(), options.skew));
+            calledContractHash = contract.hash;
+            if (contract.assetName == null) {
+                assetName = Constants.ONG;
+                contractHash = ONG_CONTRACT;
+                amount = ongAmount();
+            } else {
+                assetName = contract.transferAssetName();
+                contractHash = contract.hash;
+                amount = BigDecimal.valueOf(1 + random.nextInt(1000000));
+            }
+        }
+        txs.add(txHash, TX_TYPE_INVOKE, txTime, height, amount, FEE, assetName, from, to, "transfer", blockIndex, 0,
+                confirmFlag, EVENT_TYPE_TRANSFER, contractHash, from, calledContractHash);
+        txs.add(txHash, TX_TYPE_INVOKE, txTime, height, FEE_AMOUNT, FEE, Constants.ONG, from, GOVERNANCE_ADDRESS,
+                "gasconsume", blockIndex, 1, confirmFlag, EVENT_TYPE_FEE, ONG_CONTRACT, from, calledContractHash);
+        txCount++;
+    }
+
+    private BigDecimal ongAmount() {
+        return BigDecimal.valueOf((1L + random.nextInt(100000)) * 10000000L);
+    }
+
+    private void writeOntIdEvent(BatchWriter ontIdTxs, int txTime, long height) throws SQLException {
+        String ontId;
+        String description;
+        if (ontIds.isEmpty() || random.nextDouble() < options.ontIdRegisterShare) {
+            ontId = "did:ont:" + SyntheticData.address(random);
+            ontIds.add(ontId);
+            description = "Register ONT ID";
+        } else {
+            ontId = ontIds.get(SyntheticData.skewedIndex(random, ontIds.size(), options.skew));
+            description = random.nextBoolean() ? "add publicKey" : "add attribute";
+        }
+        ontIdTxs.add(SyntheticData.hex(random, 64), TX_TYPE_INVOKE, ontId, txTime, height, description, FEE);
+        ontIdEventCount++;
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    static String withBatchRewrite(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("rewriteBatchedStatements")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+
+    private class SyntheticContract {
+
+        private final String hash;
+
+        private final String name;
+
+        private final String type;
+
+        /**
+         * Token symbol for token contracts, null for contracts that move ONG.
+         */
+        private final String assetName;
+
+        private final boolean approved;
+
+        private final boolean dappstore;
+
+        private SyntheticContract(int index) {
+            this.hash = SyntheticData.contractHash(random);
+            this.name = "Contract" + index;
+            double kind = random.nextDouble();
+            if (kind < 0.2) {
+                type = "oep4";
+                assetName = "TK" + index;
+            } else if (kind < 0.25) {
+                type = "oep5";
+                assetName = "NFT" + index;
+            } else if (kind < 0.3) {
+                type = "oep8";
+                assetName = "MT" + index;
+            } else {
+                type = "others";
+                assetName = null;
+            }
+            this.approved = random.nextDouble() < options.approvedShare;
+            this.dappstore = "others".equals(type) && random.nextDouble() < 0.3;
+        }
+
+        /**
+         * OEP-5 transfers carry the token id after a colon, OEP-8 contracts hold a few token kinds.
+         */
+        private String transferAssetName() {
+            switch (type) {
+                case "oep5":
+                    return assetName + ":" + random.nextInt(100000);
+                case "oep8":
+                    return assetName + "-" + random.nextInt(3);
+                default:
+                    return assetName;
+            }
+        }
+
+    }
+
+    /**
+     * Command line arguments, see {@link Arguments}.
+     */
+    public static class Options {
+
+        /**
+         * JDBC URL of the target database, required.
+         */
+        String url;
+
+        String user;
+
+        String password;
+
+        int days;
+
+        /**
+         * First day, the genesis time by default.
+         */
+        int startTime;
+
+        /**
+         * Seconds between blocks.
+         */
+        int blockInterval;
+
+        int txPerDay;
+
+        /**
+         * Distinct addresses over all days, the pool grows linearly day by day.
+         */
+        int addressCount;
+
+        int contractCount;
+
+        /**
+         * Share of the contracts with the audit flag set, which the contract info task updates.
+         */
+        double approvedShare;
+
+        /**
+         * Share of native ONT and ONG transfers among the transactions, the rest calls contracts.
+         */
+        double nativeShare;
+
+        double ontShare;
+
+        int ontIdEventsPerDay;
+
+        double ontIdRegisterShare;
+
+        /**
+         * Exponent of the power law for senders and called contracts, 1 is uniform.
+         */
+        double skew;
+
+        double failureRate;
+
+        long seed;
+
+        int batchSize;
+
+        /**
+         * Drops and creates the tables from the scripts in the schema directory first.
+         */
+        boolean createSchema;
+
+        boolean truncate;
+
+        Path schemaDir;
+
+        public static Options parse(String... args) {
+            Arguments arguments = new Arguments(args);
+            Options options = new Options();
+            options.url = arguments.required("url");
+            options.user = arguments.string("user", "root");
+            options.password = arguments.string("password", "");
+            options.days = arguments.integer("days", 7);
+            options.startTime = arguments.integer("start-time", Constants.GENESIS_TIME);
+            options.blockInterval = arguments.integer("block-interval", 5);
+            options.txPerDay = arguments.integer("tx-per-day", 100000);
+            options.addressCount = arguments.integer("address-count", 200000);
+            options.contractCount = arguments.integer("contract-count", 500);
+            options.approvedShare = arguments.decimal("approved-share", 0.5);
+            options.nativeShare = arguments.decimal("native-share", 0.6);
+            options.ontShare = arguments.decimal("ont-share", 0.5);
+            options.ontIdEventsPerDay = arguments.integer("ontid-events-per-day", 2000);
+            options.ontIdRegisterShare = arguments.decimal("ontid-register-share", 0.3);
+            options.skew = arguments.decimal("skew", 3);
+            options.failureRate = arguments.decimal("failure-rate", 0.01);
+            options.seed = arguments.longValue("seed", 42);
+            options.batchSize = arguments.integer("batch-size", 5000);
+            options.createSchema = arguments.flag("create-schema", false);
+            options.truncate = arguments.flag("truncate", true);
+            options.schemaDir = Paths.get(arguments.string("schema-dir", "sql"));
+            arguments.checkAllUsed();
+            return options;
+        }
+
+    }
+
+    /**
+     * Inserts rows into one table in JDBC batches, committing after each batch.
+     */
+    private static class BatchWriter implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final PreparedStatement statement;
+
+        private final int batchSize;
+
+        private int pending;
+
+        private BatchWriter(Connection connection, String table, int batchSize, String... columns) throws SQLException {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                    .append(String.join(", ", columns)).append(") VALUES (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            this.connection = connection;
+            this.statement = connection.prepareStatement(sql.append(')').toString());
+            this.batchSize = batchSize;
+        }
+
+        private void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import java.util.Random;
+
+/**
+ * Random values shaped like the chain data, so the benchmarks hash and compare strings of realistic length.
+ */
+public final class SyntheticData {
+
+    private static final char[] BASE58 = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SyntheticData() {
+    }
+
+    /**
+     * A 34 character base58 string starting with 'A' like an Ontology address.
+     */
+    public static String address(Random random) {
+        char[] chars = new char[34];
+        chars[0] = 'A';
+        for (int i = 1; i < chars.length; i++) {
+            chars[i] = BASE58[random.nextInt(BASE58.length)];
+        }
+        return new String(chars);
+    }
+
+    public static String hex(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = HEX[random.nextInt(HEX.length)];
+        }
+        return new String(chars);
+    }
+
+    public static String contractHash(Random random) {
+        return hex(random, 40);
+    }
+
+    public static String publicKey(Random random) {
+        return "02" + hex(random, 64);
+    }
+
+    /**
+     * An index in [0, size) where low indexes are picked far more often, roughly following a power law like the
+     * popularity of contracts.
+     */
+    public static int skewedIndex(Random random, int size, double skew) {
+        return (int) (size * Math.pow(random.nextDouble(), skew));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.github.ontio.explorer.statistics.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the token sums of a contract, the rows of {@code selectContractTokenAllSum}, as stored in
+ * {@code tbl_contract.token_sum} for every approved contract.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenSumJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int assetCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Map> tokenSum;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        tokenSum = new ArrayList<>(assetCount);
+        for (int i = 0; i < assetCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("asset_name", "token" + i);
+            row.put("amount", new BigDecimal(Math.abs(random.nextLong())).movePointLeft(random.nextInt(10)));
+            tokenSum.add(row);
+        }
+    }
+
+    @Benchmark
+    public String fastjson() {
+        return JSON.toJSONString(tokenSum);
+    }
+
+    @Benchmark
+    public String jackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(tokenSum);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.benchmark.SyntheticData;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.model.NodeInfoOnChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranks the consensus nodes by stake and computes their display fields, as done on every node info refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalcNodeInfoBenchmark {
+
+    @Param({"50", "1000"})
+    private int nodeCount;
+
+    private ConsensusNodeService consensusNodeService;
+
+    private List<NodeInfoOnChain> nodes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParamsConfig paramsConfig = new ParamsConfig();
+        paramsConfig.setConsensusNodeDetailUrl("https://explorer.ont.io/nodes/detail/");
+        consensusNodeService = new ConsensusNodeService(paramsConfig, null, null, null, null, null, null, null, null,
+                null, null, null);
+        Random random = new Random(42);
+        nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            long initPos = 10000L + random.nextInt(10000000);
+            nodes.add(NodeInfoOnChain.builder()
+                    .publicKey(SyntheticData.publicKey(random))
+                    .address(SyntheticData.address(random))
+                    .status(random.nextInt(3))
+                    .initPos(initPos)
+                    .totalPos((long) random.nextInt(50000000))
+                    .maxAuthorize(initPos * (1 + random.nextInt(10)))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<NodeInfoOnChain> rankAndCalc() {
+        List<NodeInfoOnChain> ranked = new ArrayList<>(nodes);
+        ranked.sort((v1, v2) -> Long.compare(v2.getInitPos() + v2.getTotalPos(), v1.getInitPos() + v1.getTotalPos()));
+        return consensusNodeService.calcNodeInfo(ranked);
+    }
+
+}
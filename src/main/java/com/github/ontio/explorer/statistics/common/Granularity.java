@@ -0,0 +1,27 @@
+package com.github.ontio.explorer.statistics.common;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Bucket sizes of the time series tables, stored in their granularity column.
+ */
+@AllArgsConstructor
+public enum Granularity {
+
+    RAW(0),
+    HOUR(3600),
+    DAY(Constants.ONE_DAY_IN_SEC);
+
+    private final int seconds;
+
+    public int seconds() {
+        return seconds;
+    }
+
+    /**
+     * Start of the bucket containing the given time.
+     */
+    public int bucketOf(int time) {
+        return seconds == 0 ? time : time - time % seconds;
+    }
+}
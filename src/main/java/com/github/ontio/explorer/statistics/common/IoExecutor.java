@@ -0,0 +1,156 @@
+package com.github.ontio.explorer.statistics.common;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fans out blocking calls to the chain and the database.
+ * <p>
+ * With {@code config.io-virtual-threads} on a runtime that has virtual threads (Java 21 and later) every call gets a
+ * virtual thread of its own and the calls in flight against each {@link Resource} are limited by a semaphore.
+ * Otherwise every resource has a fixed pool of platform threads sized to its limit, so a fan-out against one resource
+ * never queues behind the other. The database limit also bounds the carrier threads a JDBC driver can pin inside
+ * {@code synchronized} blocks, and has to stay below the connection pool size.
+ */
+@Slf4j
+@Component
+public class IoExecutor implements DisposableBean {
+
+    private static final String PREFIX = "statistics.io";
+
+    private static final String RESOURCE = "resource";
+
+    public enum Resource {
+
+        CHAIN,
+
+        DATABASE
+
+    }
+
+    private final Map<Resource, Lane> lanes = new EnumMap<>(Resource.class);
+
+    @Autowired
+    public IoExecutor(ParamsConfig paramsConfig, MeterRegistry registry) {
+        ExecutorService virtualExecutor = paramsConfig.isIoVirtualThreads() ? newVirtualThreadExecutor() : null;
+        addResource(Resource.CHAIN, paramsConfig.getIoChainConcurrency(), virtualExecutor, registry);
+        addResource(Resource.DATABASE, paramsConfig.getIoDatabaseConcurrency(), virtualExecutor, registry);
+        log.info("Running fanned out calls on {} threads", virtualExecutor != null ? "virtual" : "platform");
+    }
+
+    /**
+     * Applies the call to every item concurrently and returns the results in the order of the items. The first
+     * failure cancels the calls not yet finished and is thrown to the caller. Running database calls are left to
+     * finish, interrupting them could break the JDBC connection they hold.
+     */
+    public <T, R> List<R> map(Resource resource, List<T> items, Function<T, R> call) {
+        Lane lane = lanes.get(resource);
+        boolean interrupt = resource != Resource.DATABASE;
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(lane.executor.submit(() -> {
+                lane.permits.acquire();
+                try {
+                    return call.apply(item);
+                } finally {
+                    lane.permits.release();
+                }
+            }));
+        }
+        List<R> results = new ArrayList<>(items.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(interrupt));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(interrupt));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + resource + " calls", e);
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    private void addResource(Resource resource, int limit, ExecutorService virtualExecutor, MeterRegistry registry) {
+        ThreadPoolExecutor pool = virtualExecutor == null ? newPlatformExecutor(resource, limit) : null;
+        Lane lane = new Lane(virtualExecutor == null ? pool : virtualExecutor, new Semaphore(limit));
+        lanes.put(resource, lane);
+        Gauge.builder(PREFIX + ".active", lane.permits, s -> limit - s.availablePermits())
+                .tag(RESOURCE, resource.name().toLowerCase())
+                .register(registry);
+        Gauge.builder(PREFIX + ".waiting", lane, l -> l.permits.getQueueLength() + (pool == null ? 0 : pool.getQueue().size()))
+                .tag(RESOURCE, resource.name().toLowerCase())
+                .register(registry);
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, using platform threads", System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor newPlatformExecutor(Resource resource, int threads) {
+        String prefix = "explorer-io-" + resource.name().toLowerCase() + "-";
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The threads and the permits of one resource.
+     */
+    @AllArgsConstructor
+    private static class Lane {
+
+        private final ExecutorService executor;
+
+        private final Semaphore permits;
+
+    }
+
+}
@@ -29,6 +29,62 @@ public class ParamsConfig {
 
     private int maxStakingChangeCount;
 
+    private long blockHeightResyncInterval = 120000;
+
+    private int blockHeightTolerance = 10;
+
+    private long blockInterval = 1000;
+
+    private int nodeMapBatchSize = 500;
+
+    private int netNodeRawRetentionDays = 30;
+
+    private int netNodeDailyRetentionDays = 0;
+
+    private int netNodeChangeRetentionDays = 90;
+
+    private int nodeStakeRawRetentionDays = 2;
+
+    private int nodeStakeHourlyRetentionDays = 60;
+
+    private int nodeRankCacheRounds = 24;
+
+    private int statisticsContractCacheSize = 200;
+
+    private long liveStreamHeartbeatInterval = 30000;
+
+    private int liveStreamQueueSize = 64;
+
+    private long liveStreamSendTimeout = 10000;
+
+    private long slowStatementThreshold = 1000;
+
+    private boolean slowStatementExplain = false;
+
+    private boolean slowStatementLogParameters = false;
+
+    private long dailySummaryMaxLag = 172800;
+
+    private long nodeInfoMaxLag = 900;
+
+    private long nodeRankHistoryMaxLag = 600;
+
+    private int taskRunHistoryRetentionDays = 90;
+
+    private int schedulerBatchPoolSize = 2;
+
+    private int schedulerChainPoolSize = 2;
+
+    private int schedulerIngestPoolSize = 1;
+
+    private boolean ioVirtualThreads = false;
+
+    private int ioChainConcurrency = 16;
+
+    private int ioDatabaseConcurrency = 4;
+
+    private int contractDayBatchSize = 100;
+
     public interface Field {
 
         String maxStakingChangeCount = "maxStakingChangeCount";
@@ -0,0 +1,241 @@
+package com.github.ontio.explorer.statistics.common;
+
+import com.alibaba.fastjson.JSON;
+import com.github.ontio.explorer.statistics.event.TaskRunEvent;
+import com.github.ontio.explorer.statistics.jfr.StageEvent;
+import com.github.ontio.explorer.statistics.model.TaskRunHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Instruments scheduled tasks and the stages of the statistics pipeline.
+ * <p>
+ * Each stage, identified by the {@code stage} tag, gets a duration timer with a percentile histogram, a failure
+ * counter, a processed rows counter and a gauge with the epoch second of its last successful run.
+ * <p>
+ * The outermost stage on a thread is a task run: the first {@link #MAX_RUN_STAGES} stages nested in it are collected
+ * with their timings, rows and ranges, and published as a {@link TaskRunEvent} when the task ends. Tasks and stages are also emitted as
+ * {@link StageEvent} to flight recordings.
+ */
+@Component
+public class PipelineMetrics {
+
+    private static final String PREFIX = "statistics.stage";
+
+    private static final String STAGE = "stage";
+
+    /**
+     * Bounds the stages kept for a catch-up run over many days, later stages still count towards its rows.
+     */
+    private static final int MAX_RUN_STAGES = 1000;
+
+    private final MeterRegistry registry;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Run> currentRun = new ThreadLocal<>();
+
+    @Autowired
+    public PipelineMetrics(MeterRegistry registry, ApplicationEventPublisher eventPublisher) {
+        this.registry = registry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void run(String stage, Runnable task) {
+        call(stage, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public <T> T call(String stage, Supplier<T> task) {
+        Timer timer = Timer.builder(PREFIX + ".duration")
+                .tag(STAGE, stage)
+                .publishPercentileHistogram()
+                .register(registry);
+        Counter failures = registry.counter(PREFIX + ".failures", STAGE, stage);
+        AtomicLong lastSuccessTime = lastSuccess(stage);
+        Run run = currentRun.get();
+        boolean root = run == null;
+        if (root) {
+            run = new Run(stage);
+            currentRun.set(run);
+        }
+        TaskRunHistory.Stage record = root ? null : run.begin(stage);
+        Throwable failure = null;
+        StageEvent event = new StageEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            T result = task.get();
+            lastSuccessTime.set(System.currentTimeMillis() / 1000);
+            return result;
+        } catch (RuntimeException | Error e) {
+            failures.increment();
+            failure = e;
+            throw e;
+        } finally {
+            sample.stop(timer);
+            event.end();
+            if (root) {
+                currentRun.remove();
+                TaskRunHistory history = run.finish(failure);
+                commit(event, run.task, stage, history.getRangeBegin(), history.getRangeEnd(), history.getRowCount(), failure);
+                eventPublisher.publishEvent(new TaskRunEvent(history));
+            } else {
+                run.end(record, failure);
+                commit(event, run.task, stage, record.getRangeBegin(), record.getRangeEnd(), record.getRows(), failure);
+            }
+        }
+    }
+
+    public void addRows(String stage, long rows) {
+        registry.counter(PREFIX + ".rows", STAGE, stage).increment(rows);
+        Run run = currentRun.get();
+        if (run != null) {
+            run.addRows(stage, rows);
+        }
+    }
+
+    /**
+     * Sets the block time or block height range the current task is processing. Stages started afterwards are
+     * recorded with it and the task range spans all of them.
+     */
+    public void markRange(long begin, long end) {
+        Run run = currentRun.get();
+        if (run != null) {
+            run.markRange(begin, end);
+        }
+    }
+
+    private static void commit(StageEvent event, String task, String stage, Long rangeBegin, Long rangeEnd, long rows,
+                               Throwable failure) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.task = task;
+        event.stage = stage;
+        event.rangeBegin = rangeBegin == null ? 0 : rangeBegin;
+        event.rangeEnd = rangeEnd == null ? 0 : rangeEnd;
+        event.rows = rows;
+        event.failed = failure != null;
+        event.commit();
+    }
+
+    private AtomicLong lastSuccess(String stage) {
+        return lastSuccess.computeIfAbsent(stage, key -> {
+            AtomicLong time = new AtomicLong();
+            Gauge.builder(PREFIX + ".last.success", time, AtomicLong::get)
+                    .tag(STAGE, key)
+                    .baseUnit("seconds")
+                    .register(registry);
+            return time;
+        });
+    }
+
+    private static class Run {
+
+        private final String task;
+
+        private final long startTime = System.currentTimeMillis();
+
+        private final List<TaskRunHistory.Stage> stages = new ArrayList<>();
+
+        private final Map<String, TaskRunHistory.Stage> latestStages = new HashMap<>();
+
+        private long rows;
+
+        private Long rangeBegin;
+
+        private Long rangeEnd;
+
+        private Long stageRangeBegin;
+
+        private Long stageRangeEnd;
+
+        private String error;
+
+        private Run(String task) {
+            this.task = task;
+        }
+
+        private TaskRunHistory.Stage begin(String name) {
+            TaskRunHistory.Stage stage = new TaskRunHistory.Stage();
+            stage.setName(name);
+            stage.setRangeBegin(stageRangeBegin);
+            stage.setRangeEnd(stageRangeEnd);
+            stage.setOffset(System.currentTimeMillis() - startTime);
+            if (stages.size() < MAX_RUN_STAGES) {
+                stages.add(stage);
+            }
+            latestStages.put(name, stage);
+            return stage;
+        }
+
+        private void end(TaskRunHistory.Stage stage, Throwable failure) {
+            stage.setDuration(System.currentTimeMillis() - startTime - stage.getOffset());
+            if (failure != null) {
+                stage.setFailed(true);
+                fail(failure);
+            }
+        }
+
+        private void addRows(String name, long count) {
+            rows += count;
+            TaskRunHistory.Stage stage = latestStages.get(name);
+            if (stage != null) {
+                stage.setRows(stage.getRows() + count);
+            }
+        }
+
+        private void markRange(long begin, long end) {
+            stageRangeBegin = begin;
+            stageRangeEnd = end;
+            rangeBegin = rangeBegin == null ? begin : Math.min(rangeBegin, begin);
+            rangeEnd = rangeEnd == null ? end : Math.max(rangeEnd, end);
+        }
+
+        private void fail(Throwable failure) {
+            if (error == null) {
+                String message = failure.toString();
+                error = message.length() > 255 ? message.substring(0, 255) : message;
+            }
+        }
+
+        private TaskRunHistory finish(Throwable failure) {
+            if (failure != null) {
+                fail(failure);
+            }
+            long endTime = System.currentTimeMillis();
+            return TaskRunHistory.builder()
+                    .task(task)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .duration((int) (endTime - startTime))
+                    .status(error == null ? TaskRunHistory.SUCCESS : TaskRunHistory.FAILED)
+                    .error(error == null ? "" : error)
+                    .rangeBegin(rangeBegin)
+                    .rangeEnd(rangeEnd)
+                    .rowCount(rows)
+                    .stages(JSON.toJSONString(stages))
+                    .build();
+        }
+
+    }
+
+}
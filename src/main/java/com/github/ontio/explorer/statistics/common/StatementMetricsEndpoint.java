@@ -0,0 +1,44 @@
+package com.github.ontio.explorer.statistics.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ranks the mapped statements recorded by {@link StatementMetricsInterceptor}, at {@code /actuator/statements}. Not
+ * exposed by default, add it to {@code management.endpoints.web.exposure.include} only behind access control.
+ */
+@Component
+@Endpoint(id = "statements")
+public class StatementMetricsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final StatementMetricsInterceptor interceptor;
+
+    @Autowired
+    public StatementMetricsEndpoint(StatementMetricsInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * @param limit   number of statements, 20 by default
+     * @param orderBy total (default), calls, rows or max
+     */
+    @ReadOperation
+    public List<StatementMetricsInterceptor.StatementStats> topStatements(@Nullable Integer limit,
+                                                                         @Nullable String orderBy) {
+        return interceptor.getTopStatements(limit == null ? DEFAULT_LIMIT : limit, orderBy);
+    }
+
+    @ReadOperation
+    public StatementMetricsInterceptor.StatementStats statement(@Selector String id) {
+        return interceptor.getStatement(id).orElse(null);
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.github.ontio.explorer.statistics.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency and the row count of every mapped statement.
+ * <p>
+ * The statement handler is intercepted rather than the executor, so the measured time is the JDBC execution plus
+ * result mapping, whatever other plugins such as the page helper do around it. Statements slower than
+ * {@code slow-statement-threshold} milliseconds are logged with the types of their bound parameters, or the values if
+ * {@code slow-statement-log-parameters} is set, and, if {@code slow-statement-explain} is set, the EXPLAIN plan of
+ * slow selects, at most once per statement per {@link #EXPLAIN_INTERVAL}.
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    private static final long EXPLAIN_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int MAX_LOGGED_PARAMETERS = 50;
+
+    private final MeterRegistry registry;
+
+    private final ParamsConfig paramsConfig;
+
+    private final Map<String, StatementStats> stats = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StatementMetricsInterceptor(MeterRegistry registry, ParamsConfig paramsConfig) {
+        this.registry = registry;
+        this.paramsConfig = paramsConfig;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementHandler handler = (StatementHandler) invocation.getTarget();
+        MappedStatement statement = mappedStatement(handler);
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long elapsed = System.nanoTime() - start;
+        long rows = rows(result);
+        record(statement.getId(), elapsed, rows);
+        if (TimeUnit.NANOSECONDS.toMillis(elapsed) >= paramsConfig.getSlowStatementThreshold()) {
+            logSlowStatement(statement, handler, (Statement) invocation.getArgs()[0], elapsed, rows);
+        }
+        return result;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+    /**
+     * Statements ordered by total time, or by calls, rows or max time, the first {@code limit} of them.
+     */
+    public List<StatementStats> getTopStatements(int limit, String orderBy) {
+        Comparator<StatementStats> comparator;
+        if ("calls".equals(orderBy)) {
+            comparator = Comparator.comparingLong(StatementStats::getCalls);
+        } else if ("rows".equals(orderBy)) {
+            comparator = Comparator.comparingLong(StatementStats::getRows);
+        } else if ("max".equals(orderBy)) {
+            comparator = Comparator.comparingDouble(StatementStats::getMaxMillis);
+        } else {
+            comparator = Comparator.comparingDouble(StatementStats::getTotalMillis);
+        }
+        List<StatementStats> statements = new ArrayList<>(stats.values());
+        statements.sort(comparator.reversed());
+        return statements.subList(0, Math.max(0, Math.min(limit, statements.size())));
+    }
+
+    public Optional<StatementStats> getStatement(String id) {
+        return Optional.ofNullable(stats.get(id));
+    }
+
+    private void record(String id, long elapsed, long rows) {
+        stats.computeIfAbsent(id, StatementStats::new).add(elapsed, rows);
+        Timer.builder("mybatis.statement.duration")
+                .tag("statement", id)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("mybatis.statement.rows")
+                .tag("statement", id)
+                .register(registry)
+                .record(rows);
+    }
+
+    private void logSlowStatement(MappedStatement statement, StatementHandler handler, Statement jdbcStatement,
+                                  long elapsed, long rows) {
+        BoundSql boundSql = handler.getBoundSql();
+        String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+        log.warn("Slow statement {} took {} ms for {} rows: {} parameters: {}", statement.getId(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), rows, sql,
+                parameters(statement.getConfiguration(), boundSql, paramsConfig.isSlowStatementLogParameters()));
+        if (paramsConfig.isSlowStatementExplain() && statement.getSqlCommandType() == SqlCommandType.SELECT
+                && shouldExplain(statement.getId())) {
+            try {
+                log.warn("Plan of slow statement {}: {}", statement.getId(), explain(handler, jdbcStatement, sql));
+            } catch (Exception e) {
+                log.warn("Explaining slow statement {} failed: {}", statement.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean shouldExplain(String id) {
+        long now = System.currentTimeMillis();
+        Long last = lastExplained.get(id);
+        if (last != null && now - last < EXPLAIN_INTERVAL) {
+            return false;
+        }
+        lastExplained.put(id, now);
+        return true;
+    }
+
+    /**
+     * Runs EXPLAIN on the connection of the statement, binding the parameters the same way.
+     */
+    private List<String> explain(StatementHandler handler, Statement jdbcStatement, String sql) throws Exception {
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement explain = jdbcStatement.getConnection().prepareStatement("EXPLAIN " + sql)) {
+            handler.getParameterHandler().setParameters(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                while (resultSet.next()) {
+                    StringJoiner row = new StringJoiner(", ", "{", "}");
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        row.add(metaData.getColumnLabel(i) + "=" + resultSet.getString(i));
+                    }
+                    plan.add(row.toString());
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Only the types of the values are listed unless they are asked for, the values may be personal data.
+     */
+    private static List<Object> parameters(Configuration configuration, BoundSql boundSql, boolean withValues) {
+        Object parameterObject = boundSql.getParameterObject();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(Math.min(mappings.size(), MAX_LOGGED_PARAMETERS + 1));
+        for (ParameterMapping mapping : mappings) {
+            if (values.size() == MAX_LOGGED_PARAMETERS) {
+                values.add("... " + (mappings.size() - MAX_LOGGED_PARAMETERS) + " more");
+                break;
+            }
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                value = configuration.newMetaObject(parameterObject).getValue(property);
+            }
+            if (value instanceof byte[]) {
+                values.add("<" + ((byte[]) value).length + " bytes>");
+            } else if (!withValues && value != null) {
+                values.add("<" + value.getClass().getSimpleName() + ">");
+            } else {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static MappedStatement mappedStatement(StatementHandler handler) {
+        MetaObject metaObject = SystemMetaObject.forObject(handler);
+        while (metaObject.hasGetter("h")) {
+            metaObject = SystemMetaObject.forObject(metaObject.getValue("h.target"));
+        }
+        return (MappedStatement) metaObject.getValue("delegate.mappedStatement");
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        return 0;
+    }
+
+    public static class StatementStats {
+
+        private final String id;
+
+        private final LongAdder callCount = new LongAdder();
+
+        private final LongAdder rowCount = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private StatementStats(String id) {
+            this.id = id;
+        }
+
+        private void add(long elapsed, long rows) {
+            callCount.increment();
+            rowCount.add(rows);
+            totalNanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getCalls() {
+            return callCount.sum();
+        }
+
+        public long getRows() {
+            return rowCount.sum();
+        }
+
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        public double getMeanMillis() {
+            long calls = getCalls();
+            return calls == 0 ? 0 : getTotalMillis() / calls;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+    }
+
+}
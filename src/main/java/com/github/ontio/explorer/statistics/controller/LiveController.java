@@ -0,0 +1,29 @@
+package com.github.ontio.explorer.statistics.controller;
+
+import com.github.ontio.explorer.statistics.service.LiveStatisticsService;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin
+@RestController
+@RequestMapping("v2/live/")
+public class LiveController {
+
+    private LiveStatisticsService liveStatisticsService;
+
+    public LiveController(LiveStatisticsService liveStatisticsService) {
+        this.liveStatisticsService = liveStatisticsService;
+    }
+
+    @ApiOperation(value = "Subscribe to block count to next round, consensus node and node rank change updates")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return liveStatisticsService.subscribe();
+    }
+
+}
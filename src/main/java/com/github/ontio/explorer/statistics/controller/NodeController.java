@@ -0,0 +1,59 @@
+package com.github.ontio.explorer.statistics.controller;
+
+import com.github.ontio.explorer.statistics.common.Response;
+import com.github.ontio.explorer.statistics.common.Result;
+import com.github.ontio.explorer.statistics.model.NodeRankHistory;
+import com.github.ontio.explorer.statistics.model.NodeStakeHistory;
+import com.github.ontio.explorer.statistics.service.NodeRankHistoryService;
+import com.github.ontio.explorer.statistics.service.NodeStakeHistoryService;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("v2/nodes/")
+public class NodeController {
+
+    private NodeStakeHistoryService nodeStakeHistoryService;
+
+    private NodeRankHistoryService nodeRankHistoryService;
+
+    public NodeController(NodeStakeHistoryService nodeStakeHistoryService,
+                          NodeRankHistoryService nodeRankHistoryService) {
+        this.nodeStakeHistoryService = nodeStakeHistoryService;
+        this.nodeRankHistoryService = nodeRankHistoryService;
+    }
+
+    @ApiOperation(value = "Get stake history of a consensus node in a time range")
+    @GetMapping(value = "/{publicKey}/stake-history")
+    public Response getStakeHistory(@PathVariable("publicKey") String publicKey,
+                                    @RequestParam("start_time") int startTime,
+                                    @RequestParam("end_time") int endTime) {
+        if (startTime > endTime) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        List<NodeStakeHistory> history = nodeStakeHistoryService.getStakeHistory(publicKey, startTime, endTime);
+        return new Response(Result.SUCCESS, history);
+    }
+
+    @ApiOperation(value = "Get rank of a consensus node in the last rounds")
+    @GetMapping(value = "/{publicKey}/rank-history")
+    public Response getRankHistory(@PathVariable("publicKey") String publicKey,
+                                   @RequestParam(value = "rounds", defaultValue = "10") int rounds) {
+        if (rounds <= 0) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        List<NodeRankHistory> history = nodeRankHistoryService.getNodeRankHistory(publicKey, rounds);
+        return new Response(Result.SUCCESS, history);
+    }
+
+    @ApiOperation(value = "Get rank of all consensus nodes in a round, the latest round if no block height is given")
+    @GetMapping(value = "/rank-history")
+    public Response getRoundRanks(@RequestParam(value = "block_height", required = false) Long blockHeight) {
+        List<NodeRankHistory> ranks = nodeRankHistoryService.getRoundRanks(blockHeight);
+        return new Response(Result.SUCCESS, ranks);
+    }
+
+}
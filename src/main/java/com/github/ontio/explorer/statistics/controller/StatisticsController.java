@@ -0,0 +1,98 @@
+package com.github.ontio.explorer.statistics.controller;
+
+import com.github.ontio.explorer.statistics.common.Response;
+import com.github.ontio.explorer.statistics.common.Result;
+import com.github.ontio.explorer.statistics.model.Contract;
+import com.github.ontio.explorer.statistics.model.ContractDailySummary;
+import com.github.ontio.explorer.statistics.model.DailySummary;
+import com.github.ontio.explorer.statistics.model.DailySummaryTotal;
+import com.github.ontio.explorer.statistics.service.AddressBitmapService;
+import com.github.ontio.explorer.statistics.service.StatisticsQueryService;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("v2/statistics/")
+public class StatisticsController {
+
+    private StatisticsQueryService statisticsQueryService;
+
+    private AddressBitmapService addressBitmapService;
+
+    public StatisticsController(StatisticsQueryService statisticsQueryService,
+                                AddressBitmapService addressBitmapService) {
+        this.statisticsQueryService = statisticsQueryService;
+        this.addressBitmapService = addressBitmapService;
+    }
+
+    @ApiOperation(value = "Get daily summaries in a time range")
+    @GetMapping(value = "/daily")
+    public Response getDailySummaries(@RequestParam("start_time") int startTime,
+                                      @RequestParam("end_time") int endTime) {
+        if (startTime > endTime) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        List<DailySummary> summaries = statisticsQueryService.getDailySummaries(startTime, endTime);
+        return new Response(Result.SUCCESS, summaries);
+    }
+
+    @ApiOperation(value = "Get new addresses, new ONT IDs and transactions in a time range")
+    @GetMapping(value = "/daily/total")
+    public Response getDailySummaryTotal(@RequestParam("start_time") int startTime,
+                                         @RequestParam("end_time") int endTime) {
+        if (startTime > endTime) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        DailySummaryTotal total = statisticsQueryService.getDailySummaryTotal(startTime, endTime);
+        return new Response(Result.SUCCESS, total);
+    }
+
+    @ApiOperation(value = "Get totals of all contracts")
+    @GetMapping(value = "/contracts")
+    public Response getContractTotals() {
+        List<Contract> totals = statisticsQueryService.getContractTotals();
+        return new Response(Result.SUCCESS, totals);
+    }
+
+    @ApiOperation(value = "Get totals of a contract")
+    @GetMapping(value = "/contracts/{contractHash}")
+    public Response getContractTotal(@PathVariable("contractHash") String contractHash) {
+        Contract total = statisticsQueryService.getContractTotal(contractHash);
+        if (total == null) {
+            return new Response(Result.NOT_FOUND);
+        }
+        return new Response(Result.SUCCESS, total);
+    }
+
+    @ApiOperation(value = "Get daily summaries of a contract in a time range")
+    @GetMapping(value = "/contracts/{contractHash}/daily")
+    public Response getContractDailySummaries(@PathVariable("contractHash") String contractHash,
+                                              @RequestParam("start_time") int startTime,
+                                              @RequestParam("end_time") int endTime) {
+        if (startTime > endTime) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        List<ContractDailySummary> summaries =
+                statisticsQueryService.getContractDailySummaries(contractHash, startTime, endTime);
+        return new Response(Result.SUCCESS, summaries);
+    }
+
+    @ApiOperation(value = "Get addresses that used a contract for the first time on a day")
+    @GetMapping(value = "/contracts/{contractHash}/first-seen-addresses")
+    public Response getFirstSeenAddresses(@PathVariable("contractHash") String contractHash,
+                                          @RequestParam("time") int time) {
+        List<String> addresses = addressBitmapService.getFirstSeenAddresses(contractHash, time);
+        return new Response(Result.SUCCESS, addresses);
+    }
+
+    @ApiOperation(value = "Get number of addresses that ever used a contract")
+    @GetMapping(value = "/contracts/{contractHash}/lifetime-address-count")
+    public Response getLifetimeAddressCount(@PathVariable("contractHash") String contractHash) {
+        int count = addressBitmapService.getLifetimeCount(contractHash);
+        return new Response(Result.SUCCESS, count);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.github.ontio.explorer.statistics.controller;
+
+import com.github.ontio.explorer.statistics.common.Response;
+import com.github.ontio.explorer.statistics.common.Result;
+import com.github.ontio.explorer.statistics.model.TaskRunHistory;
+import com.github.ontio.explorer.statistics.service.TaskRunHistoryService;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("v2/tasks/")
+public class TaskController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private TaskRunHistoryService taskRunHistoryService;
+
+    public TaskController(TaskRunHistoryService taskRunHistoryService) {
+        this.taskRunHistoryService = taskRunHistoryService;
+    }
+
+    @ApiOperation(value = "Get the latest runs of the scheduled tasks with their stage timings, start and end time in seconds")
+    @GetMapping(value = "/runs")
+    public Response getRuns(@RequestParam(value = "task", required = false) String task,
+                            @RequestParam(value = "start_time", defaultValue = "0") long startTime,
+                            @RequestParam(value = "end_time", required = false) Long endTime,
+                            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        long end = endTime == null ? Long.MAX_VALUE / 1000 : endTime;
+        if (startTime > end || limit <= 0 || limit > MAX_LIMIT) {
+            return new Response(Result.BAD_REQUEST);
+        }
+        List<TaskRunHistory> runs = taskRunHistoryService.getRuns(task, startTime * 1000, end * 1000, limit);
+        return new Response(Result.SUCCESS, runs);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.github.ontio.explorer.statistics.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the block height tracker whenever the known or estimated block height advances.
+ */
+@Getter
+@AllArgsConstructor
+public class BlockHeightEvent {
+
+    private final long blockHeight;
+
+}
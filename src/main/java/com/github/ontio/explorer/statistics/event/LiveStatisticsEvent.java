@@ -0,0 +1,23 @@
+package com.github.ontio.explorer.statistics.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A new value of a live statistic, pushed to the subscribers of the live stream as an event with the same name.
+ */
+@Getter
+@AllArgsConstructor
+public class LiveStatisticsEvent {
+
+    public static final String BLOCK_COUNT_TO_NEXT_ROUND = "block-count-to-next-round";
+
+    public static final String CONSENSUS_NODES = "consensus-nodes";
+
+    public static final String NODE_RANK_CHANGE = "node-rank-change";
+
+    private final String name;
+
+    private final Object data;
+
+}
@@ -0,0 +1,15 @@
+package com.github.ontio.explorer.statistics.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after the node ranks of a new round have been inserted into the rank history.
+ */
+@Getter
+@AllArgsConstructor
+public class NodeRankHistoryEvent {
+
+    private final long blockHeight;
+
+}
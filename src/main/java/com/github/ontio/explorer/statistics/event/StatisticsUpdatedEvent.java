@@ -0,0 +1,30 @@
+package com.github.ontio.explorer.statistics.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a run of {@link com.github.ontio.explorer.statistics.service.StatisticsService} has finished
+ * writing the tables of its scope.
+ */
+@Getter
+@AllArgsConstructor
+public class StatisticsUpdatedEvent {
+
+    public enum Scope {
+
+        /**
+         * {@code tbl_daily_summary} and {@code tbl_contract_daily_summary}.
+         */
+        DAILY_SUMMARY,
+
+        /**
+         * The aggregates in {@code tbl_contract}.
+         */
+        CONTRACT
+
+    }
+
+    private final Scope scope;
+
+}
@@ -0,0 +1,17 @@
+package com.github.ontio.explorer.statistics.event;
+
+import com.github.ontio.explorer.statistics.model.TaskRunHistory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link com.github.ontio.explorer.statistics.common.PipelineMetrics} when a task and all of its stages
+ * have finished.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskRunEvent {
+
+    private final TaskRunHistory run;
+
+}
@@ -0,0 +1,30 @@
+package com.github.ontio.explorer.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A request of the SDK to an Ontology node.
+ */
+@Name("com.github.ontio.explorer.statistics.ChainRpc")
+@Label("Chain RPC")
+@Category({"Ontology Explorer", "Chain"})
+public class ChainRpcEvent extends Event {
+
+    @Label("Host")
+    public String host;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Success")
+    public boolean success;
+
+    public ChainRpcEvent(String host, String method) {
+        this.host = host;
+        this.method = method;
+    }
+
+}
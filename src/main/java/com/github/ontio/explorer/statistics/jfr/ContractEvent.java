@@ -0,0 +1,42 @@
+package com.github.ontio.explorer.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One contract of the per-contract loops of {@link com.github.ontio.explorer.statistics.service.StatisticsService}.
+ */
+@Name("com.github.ontio.explorer.statistics.Contract")
+@Label("Contract Iteration")
+@Category({"Ontology Explorer", "Statistics"})
+@Description("Statistics of one contract computed inside a pipeline stage")
+@StackTrace(false)
+public class ContractEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Contract Hash")
+    public String contractHash;
+
+    @Label("Day")
+    @Description("Block time of the day summarized, 0 for the running totals")
+    public int day;
+
+    @Label("Transactions")
+    public long txCount;
+
+    @Label("Addresses")
+    public long addressCount;
+
+    public ContractEvent(String stage, String contractHash, int day) {
+        this.stage = stage;
+        this.contractHash = contractHash;
+        this.day = day;
+    }
+
+}
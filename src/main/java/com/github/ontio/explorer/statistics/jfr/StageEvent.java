@@ -0,0 +1,39 @@
+package com.github.ontio.explorer.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A task or one of its stages, emitted by {@link com.github.ontio.explorer.statistics.common.PipelineMetrics}.
+ */
+@Name("com.github.ontio.explorer.statistics.Stage")
+@Label("Pipeline Stage")
+@Category({"Ontology Explorer", "Statistics"})
+@Description("A scheduled task or one of its pipeline stages")
+@StackTrace(false)
+public class StageEvent extends Event {
+
+    @Label("Task")
+    public String task;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Range Begin")
+    @Description("Block time of the day or block height the stage started processing")
+    public long rangeBegin;
+
+    @Label("Range End")
+    public long rangeEnd;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
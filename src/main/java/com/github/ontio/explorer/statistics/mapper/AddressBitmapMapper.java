@@ -0,0 +1,19 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.AddressBitmap;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+@Repository
+public interface AddressBitmapMapper extends Mapper<AddressBitmap> {
+
+    int upsertDaily(AddressBitmap bitmap);
+
+    AddressBitmap selectDaily(@Param("contractHash") String contractHash, @Param("time") int time);
+
+    int upsertLifetime(AddressBitmap bitmap);
+
+    AddressBitmap selectLifetime(@Param("contractHash") String contractHash);
+
+}
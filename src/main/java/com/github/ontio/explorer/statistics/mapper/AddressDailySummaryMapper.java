@@ -16,6 +16,7 @@
 package com.github.ontio.explorer.statistics.mapper;
 
 import com.github.ontio.explorer.statistics.model.AddressDailySummary;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import tk.mybatis.mapper.common.Mapper;
 
@@ -28,7 +29,9 @@ public interface AddressDailySummaryMapper extends Mapper<AddressDailySummary> {
 
     List<String> selectDistinctAddressByContract(String contractHash);
 
-    Integer selectAllAddressCount();
+    List<Integer> selectDays();
+
+    List<AddressDailySummary> selectByDay(@Param("time") int time);
 
     int batchInsertSelective(List<AddressDailySummary> records);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.AddressId;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AddressIdMapper extends Mapper<AddressId> {
+
+    int batchInsertIgnore(Collection<String> addresses);
+
+    List<AddressId> selectByAddresses(Collection<String> addresses);
+
+    List<AddressId> selectByIds(Collection<Integer> ids);
+
+}
@@ -25,5 +25,7 @@ public interface BlockMapper extends Mapper<Block> {
     // self-defined SQL
     Integer selectBlockMaxTime();
 
+    Integer selectLatestBlockTime();
+
     int selectBlockCountInOneDay(@Param("StartTime") long startTime, @Param("EndTime") long endTime);
 }
\ No newline at end of file
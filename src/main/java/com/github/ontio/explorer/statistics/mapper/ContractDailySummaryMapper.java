@@ -17,6 +17,7 @@ package com.github.ontio.explorer.statistics.mapper;
 
 import com.github.ontio.explorer.statistics.model.Contract;
 import com.github.ontio.explorer.statistics.model.ContractDailySummary;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import tk.mybatis.mapper.common.Mapper;
 
@@ -32,4 +33,8 @@ public interface ContractDailySummaryMapper extends Mapper<ContractDailySummary>
     int batchInsertSelective(List<ContractDailySummary> record);
 
     ContractDailySummary selectContractSummary(String contractHash);
+
+    List<ContractDailySummary> selectByContractHash(@Param("contractHash") String contractHash);
+
+    List<ContractDailySummary> selectAfterTime(@Param("time") int time);
 }
@@ -25,4 +25,6 @@ import java.util.List;
 public interface ContractMapper extends Mapper<Contract> {
     // self-defined SQL
     List<Contract> selectAllApprovedContract();
+
+    List<Contract> selectContractTotals();
 }
\ No newline at end of file
@@ -16,11 +16,18 @@
 package com.github.ontio.explorer.statistics.mapper;
 
 import com.github.ontio.explorer.statistics.model.DailySummary;
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 import tk.mybatis.mapper.common.Mapper;
 
+import java.util.List;
+
 @Repository
 public interface DailySummaryMapper extends Mapper<DailySummary> {
     // self-defined SQL
     Integer selectMaxTime();
+
+    List<DailySummary> selectAfterTime(@Param("time") int time);
+
+    DailySummary selectLatestBefore(@Param("time") int time);
 }
\ No newline at end of file
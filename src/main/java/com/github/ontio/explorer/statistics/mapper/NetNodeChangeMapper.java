@@ -0,0 +1,17 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.NetNodeChange;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.util.List;
+
+@Repository
+public interface NetNodeChangeMapper extends Mapper<NetNodeChange> {
+
+    int batchInsert(List<NetNodeChange> records);
+
+    int deleteBefore(@Param("before") int before);
+
+}
@@ -4,9 +4,11 @@ import com.github.ontio.explorer.statistics.model.NetNodeInfo;
 import org.springframework.stereotype.Repository;
 import tk.mybatis.mapper.common.Mapper;
 
+import java.util.List;
+
 @Repository
 public interface NetNodeInfoMapper extends Mapper<NetNodeInfo> {
 
-    Integer updateWithLatestInfo(NetNodeInfo netNodeInfo);
+    int batchUpsert(List<NetNodeInfo> records);
 
 }
\ No newline at end of file
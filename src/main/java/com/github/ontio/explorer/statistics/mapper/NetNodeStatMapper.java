@@ -0,0 +1,20 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.NetNodeStat;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.util.List;
+
+@Repository
+public interface NetNodeStatMapper extends Mapper<NetNodeStat> {
+
+    int batchInsert(List<NetNodeStat> records);
+
+    int downsample(@Param("sourceGranularity") int sourceGranularity, @Param("granularity") int granularity,
+                   @Param("before") int before);
+
+    int deleteBefore(@Param("granularity") int granularity, @Param("before") int before);
+
+}
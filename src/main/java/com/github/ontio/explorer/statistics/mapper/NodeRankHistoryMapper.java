@@ -18,4 +18,10 @@ public interface NodeRankHistoryMapper extends Mapper<NodeRankHistory> {
 
     void batchInsertSelective(List<NodeRankHistory> nodePositionHistoryList);
 
+    List<Long> selectRecentRoundBlockHeights(@Param("limit") int limit);
+
+    List<NodeRankHistory> selectNodeRankHistoryListFromBlockHeight(@Param("blockHeight") Long blockHeight);
+
+    List<NodeRankHistory> selectNodeRankHistoryByPublicKeyFromBlockHeight(@Param("publicKey") String publicKey, @Param("blockHeight") Long blockHeight);
+
 }
\ No newline at end of file
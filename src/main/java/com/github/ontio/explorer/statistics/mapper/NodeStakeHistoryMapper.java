@@ -0,0 +1,23 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.NodeStakeHistory;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.util.List;
+
+@Repository
+public interface NodeStakeHistoryMapper extends Mapper<NodeStakeHistory> {
+
+    int batchInsert(List<NodeStakeHistory> records);
+
+    int rollup(@Param("sourceGranularity") int sourceGranularity, @Param("granularity") int granularity,
+               @Param("from") int from, @Param("before") int before);
+
+    int deleteBefore(@Param("granularity") int granularity, @Param("before") int before);
+
+    List<NodeStakeHistory> selectHistory(@Param("publicKey") String publicKey, @Param("granularity") int granularity,
+                                         @Param("startTime") int startTime, @Param("endTime") int endTime);
+
+}
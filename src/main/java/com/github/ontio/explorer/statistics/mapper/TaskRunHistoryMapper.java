@@ -0,0 +1,18 @@
+package com.github.ontio.explorer.statistics.mapper;
+
+import com.github.ontio.explorer.statistics.model.TaskRunHistory;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+import tk.mybatis.mapper.common.Mapper;
+
+import java.util.List;
+
+@Repository
+public interface TaskRunHistoryMapper extends Mapper<TaskRunHistory> {
+
+    List<TaskRunHistory> selectRuns(@Param("task") String task, @Param("startTime") long startTime,
+                                    @Param("endTime") long endTime, @Param("limit") int limit);
+
+    int deleteBefore(@Param("before") long before);
+
+}
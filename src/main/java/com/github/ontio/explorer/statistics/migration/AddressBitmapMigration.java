@@ -0,0 +1,85 @@
+package com.github.ontio.explorer.statistics.migration;
+
+import com.github.ontio.explorer.statistics.ExplorerStatisticsApplication;
+import com.github.ontio.explorer.statistics.mapper.AddressDailySummaryMapper;
+import com.github.ontio.explorer.statistics.model.AddressDailySummary;
+import com.github.ontio.explorer.statistics.service.AddressBitmapService;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports the new addresses of {@code tbl_address_daily_summary} into the address bitmaps, in one pass over its days
+ * in order, so the days counted before the bitmaps existed get their daily and lifetime sets.
+ * <p>
+ * Run it once with the statistics service stopped, after creating the bitmap tables and before the first daily run of
+ * the upgraded service:
+ * <pre>
+ * java -Dloader.main=com.github.ontio.explorer.statistics.migration.AddressBitmapMigration \
+ *      -cp explorer-statistics.jar org.springframework.boot.loader.PropertiesLauncher
+ * </pre>
+ * Running it again rebuilds the same sets. Nothing reads {@code tbl_address_daily_summary} afterwards, it can be
+ * dropped once the migration has finished.
+ */
+@Slf4j
+public class AddressBitmapMigration {
+
+    private final AddressDailySummaryMapper addressDailySummaryMapper;
+
+    private final AddressBitmapService addressBitmapService;
+
+    public AddressBitmapMigration(AddressDailySummaryMapper addressDailySummaryMapper,
+                                  AddressBitmapService addressBitmapService) {
+        this.addressDailySummaryMapper = addressDailySummaryMapper;
+        this.addressBitmapService = addressBitmapService;
+    }
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExplorerStatisticsApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(ctx -> ctx.addBeanFactoryPostProcessor(AddressBitmapMigration::disableScheduling))
+                .run(args)) {
+            new AddressBitmapMigration(context.getBean(AddressDailySummaryMapper.class),
+                    context.getBean(AddressBitmapService.class)).run();
+        }
+    }
+
+    public void run() {
+        Map<String, RoaringBitmap> lifetimes = new HashMap<>();
+        Map<String, Integer> lastDays = new HashMap<>();
+        List<Integer> days = addressDailySummaryMapper.selectDays();
+        for (int time : days) {
+            Map<String, List<String>> addressesByContract = new HashMap<>();
+            for (AddressDailySummary row : addressDailySummaryMapper.selectByDay(time)) {
+                addressesByContract.computeIfAbsent(row.getContractHash(), k -> new ArrayList<>()).add(row.getAddress());
+            }
+            addressesByContract.forEach((contractHash, addresses) -> {
+                RoaringBitmap lifetime = lifetimes.computeIfAbsent(contractHash, k -> new RoaringBitmap());
+                addressBitmapService.importDay(time, contractHash, addresses, lifetime);
+                lastDays.put(contractHash, time);
+            });
+            log.info("Imported the new addresses of {} contracts on {}", addressesByContract.size(), time);
+        }
+        lifetimes.forEach((contractHash, lifetime) ->
+                addressBitmapService.importLifetime(lastDays.get(contractHash), contractHash, lifetime));
+        log.info("Imported {} days of {} contracts into the address bitmaps", days.size(), lifetimes.size());
+    }
+
+    private static void disableScheduling(ConfigurableListableBeanFactory beanFactory) {
+        BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+        if (registry.containsBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+            registry.removeBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+        }
+    }
+
+}
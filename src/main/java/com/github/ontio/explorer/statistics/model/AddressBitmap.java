@@ -0,0 +1,33 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_address_daily_bitmap")
+public class AddressBitmap {
+    @Id
+    @Column(name = "contract_hash")
+    private String contractHash;
+
+    /**
+     * UTC0 timestamp of the day, for lifetime bitmaps the last day included.
+     */
+    @Id
+    private Integer time;
+
+    @Column(name = "address_count")
+    private Integer addressCount;
+
+    /**
+     * Serialized roaring bitmap of address ids.
+     */
+    private byte[] bitmap;
+}
@@ -0,0 +1,22 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_address_id")
+public class AddressId {
+    /**
+     * Dense id of the address, the value stored in the address bitmaps.
+     */
+    @Id
+    @GeneratedValue(generator = "JDBC")
+    private Integer id;
+
+    private String address;
+}
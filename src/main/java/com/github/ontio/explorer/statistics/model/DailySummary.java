@@ -15,14 +15,18 @@
 
 package com.github.ontio.explorer.statistics.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import javax.persistence.*;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Table(name = "tbl_daily_summary")
 public class DailySummary {
     /**
@@ -79,6 +83,24 @@ public class DailySummary {
     @Column(name = "new_address_count")
     private Integer newAddressCount;
 
+    /**
+     * 截至当天的地址总数
+     */
+    @Column(name = "total_address_count")
+    private Integer totalAddressCount;
+
+    /**
+     * 截至当天的ONT ID总数
+     */
+    @Column(name = "total_ontid_count")
+    private Integer totalOntidCount;
+
+    /**
+     * 截至当天的交易总数
+     */
+    @Column(name = "total_tx_count")
+    private Long totalTxCount;
+
     /**
      * 获取当天的UTC0点时间戳
      *
@@ -240,4 +262,58 @@ public class DailySummary {
     public void setNewAddressCount(Integer newAddressCount) {
         this.newAddressCount = newAddressCount;
     }
+
+    /**
+     * 获取截至当天的地址总数
+     *
+     * @return total_address_count - 截至当天的地址总数
+     */
+    public Integer getTotalAddressCount() {
+        return totalAddressCount;
+    }
+
+    /**
+     * 设置截至当天的地址总数
+     *
+     * @param totalAddressCount 截至当天的地址总数
+     */
+    public void setTotalAddressCount(Integer totalAddressCount) {
+        this.totalAddressCount = totalAddressCount;
+    }
+
+    /**
+     * 获取截至当天的ONT ID总数
+     *
+     * @return total_ontid_count - 截至当天的ONT ID总数
+     */
+    public Integer getTotalOntidCount() {
+        return totalOntidCount;
+    }
+
+    /**
+     * 设置截至当天的ONT ID总数
+     *
+     * @param totalOntidCount 截至当天的ONT ID总数
+     */
+    public void setTotalOntidCount(Integer totalOntidCount) {
+        this.totalOntidCount = totalOntidCount;
+    }
+
+    /**
+     * 获取截至当天的交易总数
+     *
+     * @return total_tx_count - 截至当天的交易总数
+     */
+    public Long getTotalTxCount() {
+        return totalTxCount;
+    }
+
+    /**
+     * 设置截至当天的交易总数
+     *
+     * @param totalTxCount 截至当天的交易总数
+     */
+    public void setTotalTxCount(Long totalTxCount) {
+        this.totalTxCount = totalTxCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totals of the daily summaries with a time in [startTime, endTime].
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySummaryTotal {
+
+    private Integer startTime;
+
+    private Integer endTime;
+
+    private Integer newAddressCount;
+
+    private Integer newOntidCount;
+
+    private Long txCount;
+
+}
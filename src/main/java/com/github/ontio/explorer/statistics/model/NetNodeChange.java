@@ -0,0 +1,58 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_net_node_change")
+public class NetNodeChange {
+
+    public static final int NEW = 1;
+
+    public static final int UPDATE = 2;
+
+    @Id
+    @GeneratedValue(generator = "JDBC")
+    private Long id;
+
+    private Integer time;
+
+    private String ip;
+
+    /**
+     * 1: node seen for the first time, 2: known node changed.
+     */
+    @Column(name = "change_type")
+    private Integer changeType;
+
+    private String version;
+
+    @Column(name = "is_consensus")
+    private Boolean isConsensus;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    @Column(name = "last_active_time")
+    private Long lastActiveTime;
+
+    private String country;
+
+    public NetNodeChange(NetNodeInfo node, int time, int changeType) {
+        this.time = time;
+        this.ip = node.getIp();
+        this.changeType = changeType;
+        this.version = node.getVersion();
+        this.isConsensus = node.getIsConsensus();
+        this.isActive = node.getIsActive();
+        this.lastActiveTime = node.getLastActiveTime();
+        this.country = node.getCountry() == null ? "" : node.getCountry();
+    }
+}
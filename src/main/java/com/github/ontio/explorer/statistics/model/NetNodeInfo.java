@@ -1,11 +1,11 @@
 package com.github.ontio.explorer.statistics.model;
 
+import com.alibaba.fastjson.JSONReader;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
-import java.util.LinkedHashMap;
 
 @Data
 @NoArgsConstructor
@@ -33,15 +33,46 @@ public class NetNodeInfo {
 
     private String latitude;
 
-    public NetNodeInfo(LinkedHashMap object) {
-        this.ip = (String) object.get("ip");
-        String ver = (String) object.get("soft_version");
-        this.version = ver.startsWith("v") ? ver : "";
-        this.isConsensus = (Boolean) object.get("is_consensus");
-        this.isActive = (Boolean) object.get("can_connect");
-        this.lastActiveTime = (Long) object.get("last_active_time");
-        this.country = (String) object.get("country");
-        this.latitude = String.valueOf(object.get("lat"));
-        this.longitude = String.valueOf(object.get("lon"));
+    /**
+     * Reads one node object of the node map feed from the current position of the reader.
+     */
+    public static NetNodeInfo readFrom(JSONReader reader) {
+        NetNodeInfo node = new NetNodeInfo();
+        reader.startObject();
+        while (reader.hasNext()) {
+            String key = reader.readString();
+            switch (key) {
+                case "ip":
+                    node.ip = reader.readString();
+                    break;
+                case "soft_version":
+                    String ver = reader.readString();
+                    node.version = ver != null && ver.startsWith("v") ? ver : "";
+                    break;
+                case "is_consensus":
+                    node.isConsensus = (Boolean) reader.readObject();
+                    break;
+                case "can_connect":
+                    node.isActive = (Boolean) reader.readObject();
+                    break;
+                case "last_active_time":
+                    node.lastActiveTime = reader.readLong();
+                    break;
+                case "country":
+                    node.country = reader.readString();
+                    break;
+                case "lat":
+                    node.latitude = String.valueOf(reader.readObject());
+                    break;
+                case "lon":
+                    node.longitude = String.valueOf(reader.readObject());
+                    break;
+                default:
+                    reader.readObject();
+                    break;
+            }
+        }
+        reader.endObject();
+        return node;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_net_node_stat")
+public class NetNodeStat {
+    /**
+     * Start of the bucket in seconds, the refresh time for raw samples.
+     */
+    @Id
+    private Integer time;
+
+    /**
+     * Bucket size in seconds, 0 for raw samples.
+     */
+    @Id
+    private Integer granularity;
+
+    /**
+     * version, country, consensus, active or total.
+     */
+    @Id
+    private String dimension;
+
+    @Id
+    @Column(name = "dimension_value")
+    private String dimensionValue;
+
+    @Column(name = "node_count")
+    private Integer nodeCount;
+
+}
@@ -0,0 +1,53 @@
+package com.github.ontio.explorer.statistics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_node_stake_history")
+public class NodeStakeHistory {
+    @Id
+    @Column(name = "public_key")
+    private String publicKey;
+
+    /**
+     * Bucket size in seconds, 0 for raw samples.
+     */
+    @Id
+    private Integer granularity;
+
+    /**
+     * Start of the bucket in seconds, the refresh time for raw samples.
+     */
+    @Id
+    private Integer time;
+
+    @Column(name = "init_pos")
+    private Long initPos;
+
+    @Column(name = "total_pos")
+    private Long totalPos;
+
+    @Column(name = "current_stake")
+    private Long currentStake;
+
+    @Column(name = "max_authorize")
+    private Long maxAuthorize;
+
+    public NodeStakeHistory(NodeInfoOnChain node, int time) {
+        this.publicKey = node.getPublicKey();
+        this.granularity = 0;
+        this.time = time;
+        this.initPos = node.getInitPos();
+        this.totalPos = node.getTotalPos();
+        this.currentStake = node.getCurrentStake();
+        this.maxAuthorize = node.getMaxAuthorize();
+    }
+}
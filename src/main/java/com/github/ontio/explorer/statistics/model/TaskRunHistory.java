@@ -0,0 +1,90 @@
+package com.github.ontio.explorer.statistics.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tbl_task_run_history")
+public class TaskRunHistory {
+
+    public static final String SUCCESS = "SUCCESS";
+
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(generator = "JDBC")
+    private Long id;
+
+    private String task;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "start_time")
+    private Long startTime;
+
+    @Column(name = "end_time")
+    private Long endTime;
+
+    /**
+     * Milliseconds.
+     */
+    private Integer duration;
+
+    /**
+     * FAILED if the task or any of its stages threw.
+     */
+    private String status;
+
+    private String error;
+
+    /**
+     * Range processed by the run, block time for the daily tasks and block height for the round tasks.
+     */
+    @Column(name = "range_begin")
+    private Long rangeBegin;
+
+    @Column(name = "range_end")
+    private Long rangeEnd;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    /**
+     * JSON array of {@link Stage} in the order they started.
+     */
+    @JsonRawValue
+    private String stages;
+
+    @Data
+    @NoArgsConstructor
+    public static class Stage {
+
+        private String name;
+
+        private Long rangeBegin;
+
+        private Long rangeEnd;
+
+        /**
+         * Milliseconds since the start of the run.
+         */
+        private long offset;
+
+        private long duration;
+
+        private long rows;
+
+        private boolean failed;
+
+    }
+
+}
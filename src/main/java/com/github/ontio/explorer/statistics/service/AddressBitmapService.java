@@ -0,0 +1,215 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.mapper.AddressBitmapMapper;
+import com.github.ontio.explorer.statistics.mapper.AddressIdMapper;
+import com.github.ontio.explorer.statistics.model.AddressBitmap;
+import com.github.ontio.explorer.statistics.model.AddressId;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Stores the addresses seen by each contract as compressed bitmaps of dense address ids.
+ * <p>
+ * For every (day, contract) the addresses seen for the first time that day are kept in one blob, and for every
+ * contract the union of all days is kept as its lifetime set, so the new addresses of a day are the active addresses
+ * minus one blob instead of a scan over every address the contract has ever seen.
+ * <p>
+ * Days counted before the bitmaps existed are imported once by
+ * {@link com.github.ontio.explorer.statistics.migration.AddressBitmapMigration}, a contract without a lifetime set
+ * has seen no address.
+ */
+@Slf4j
+@Service
+public class AddressBitmapService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final AddressIdMapper addressIdMapper;
+
+    private final AddressBitmapMapper addressBitmapMapper;
+
+    @Autowired
+    public AddressBitmapService(AddressIdMapper addressIdMapper, AddressBitmapMapper addressBitmapMapper) {
+        this.addressIdMapper = addressIdMapper;
+        this.addressBitmapMapper = addressBitmapMapper;
+    }
+
+    /**
+     * Records the addresses active on the contract during the day and returns how many of them are new to it.
+     * <p>
+     * The day is written before the lifetime set. Recording the last recorded day again, after a failed run,
+     * compares against the lifetime set without that day and gives the same result.
+     */
+    public int recordDay(int time, String contractHash, Collection<String> activeAddresses) {
+        AddressBitmap lifetime = getLifetimeBitmap(contractHash);
+        RoaringBitmap seen = deserialize(lifetime.getBitmap());
+        if (lifetime.getTime() >= time) {
+            AddressBitmap recorded = addressBitmapMapper.selectDaily(contractHash, time);
+            if (recorded != null) {
+                seen.andNot(deserialize(recorded.getBitmap()));
+            }
+        }
+        RoaringBitmap firstSeen = RoaringBitmap.andNot(assignIds(activeAddresses), seen);
+        seen.or(firstSeen);
+        addressBitmapMapper.upsertDaily(toRow(contractHash, time, firstSeen));
+        addressBitmapMapper.upsertLifetime(toRow(contractHash, Math.max(time, lifetime.getTime()), seen));
+        return firstSeen.getCardinality();
+    }
+
+    /**
+     * Counts the addresses the contract has never seen, without recording them.
+     */
+    public int countNew(String contractHash, Collection<String> addresses) {
+        RoaringBitmap seen = getLifetime(contractHash);
+        int known = 0;
+        for (AddressId addressId : lookup(addresses)) {
+            if (seen.contains(addressId.getId())) {
+                known++;
+            }
+        }
+        return addresses.size() - known;
+    }
+
+    public RoaringBitmap getFirstSeen(String contractHash, int time) {
+        AddressBitmap bitmap = addressBitmapMapper.selectDaily(contractHash, time);
+        return bitmap == null ? new RoaringBitmap() : deserialize(bitmap.getBitmap());
+    }
+
+    public RoaringBitmap getLifetime(String contractHash) {
+        return deserialize(getLifetimeBitmap(contractHash).getBitmap());
+    }
+
+    public List<String> getFirstSeenAddresses(String contractHash, int time) {
+        return toAddresses(getFirstSeen(contractHash, time));
+    }
+
+    public int getLifetimeCount(String contractHash) {
+        return getLifetimeBitmap(contractHash).getAddressCount();
+    }
+
+    public List<String> toAddresses(RoaringBitmap ids) {
+        List<String> addresses = new ArrayList<>(ids.getCardinality());
+        List<Integer> batch = new ArrayList<>(BATCH_SIZE);
+        for (int id : ids) {
+            batch.add(id);
+            if (batch.size() == BATCH_SIZE) {
+                addAddresses(batch, addresses);
+                batch.clear();
+            }
+        }
+        addAddresses(batch, addresses);
+        return addresses;
+    }
+
+    private void addAddresses(List<Integer> ids, List<String> addresses) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (AddressId addressId : addressIdMapper.selectByIds(ids)) {
+            addresses.add(addressId.getAddress());
+        }
+    }
+
+    /**
+     * Imports a day counted before the bitmaps existed, the addresses of the day not in the lifetime set yet are
+     * written as its first seen addresses and added to the lifetime set.
+     */
+    public void importDay(int time, String contractHash, Collection<String> addresses, RoaringBitmap lifetime) {
+        RoaringBitmap firstSeen = RoaringBitmap.andNot(assignIds(addresses), lifetime);
+        lifetime.or(firstSeen);
+        addressBitmapMapper.upsertDaily(toRow(contractHash, time, firstSeen));
+    }
+
+    /**
+     * Merges the imported lifetime set into the stored one, which keeps the days recorded after the import.
+     */
+    public void importLifetime(int time, String contractHash, RoaringBitmap lifetime) {
+        AddressBitmap stored = addressBitmapMapper.selectLifetime(contractHash);
+        if (stored != null) {
+            lifetime.or(deserialize(stored.getBitmap()));
+            time = Math.max(time, stored.getTime());
+        }
+        addressBitmapMapper.upsertLifetime(toRow(contractHash, time, lifetime));
+    }
+
+    private AddressBitmap getLifetimeBitmap(String contractHash) {
+        AddressBitmap lifetime = addressBitmapMapper.selectLifetime(contractHash);
+        return lifetime == null ? toRow(contractHash, 0, new RoaringBitmap()) : lifetime;
+    }
+
+    /**
+     * Looks the addresses up and inserts the unknown ones, only inserting what is missing keeps the auto increment
+     * ids dense.
+     */
+    private RoaringBitmap assignIds(Collection<String> addresses) {
+        RoaringBitmap ids = new RoaringBitmap();
+        for (List<String> batch : partition(addresses)) {
+            Set<String> missing = new HashSet<>(batch);
+            for (AddressId addressId : addressIdMapper.selectByAddresses(batch)) {
+                ids.add(addressId.getId());
+                missing.remove(addressId.getAddress());
+            }
+            if (missing.isEmpty()) {
+                continue;
+            }
+            addressIdMapper.batchInsertIgnore(missing);
+            for (AddressId addressId : addressIdMapper.selectByAddresses(missing)) {
+                ids.add(addressId.getId());
+            }
+        }
+        return ids;
+    }
+
+    private List<AddressId> lookup(Collection<String> addresses) {
+        List<AddressId> addressIds = new ArrayList<>(addresses.size());
+        for (List<String> batch : partition(addresses)) {
+            addressIds.addAll(addressIdMapper.selectByAddresses(batch));
+        }
+        return addressIds;
+    }
+
+    private static List<List<String>> partition(Collection<String> addresses) {
+        List<String> all = new ArrayList<>(addresses);
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += BATCH_SIZE) {
+            batches.add(all.subList(i, Math.min(i + BATCH_SIZE, all.size())));
+        }
+        return batches;
+    }
+
+    private static AddressBitmap toRow(String contractHash, int time, RoaringBitmap ids) {
+        return AddressBitmap.builder()
+                .contractHash(contractHash)
+                .time(time)
+                .addressCount(ids.getCardinality())
+                .bitmap(serialize(ids))
+                .build();
+    }
+
+    private static byte[] serialize(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+        try {
+            bitmap.serialize(new DataOutputStream(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static RoaringBitmap deserialize(byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+}
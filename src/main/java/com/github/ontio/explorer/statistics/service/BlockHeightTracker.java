@@ -0,0 +1,166 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.core.governance.GovernanceView;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.BlockHeightEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last block height and governance view read from the chain and extrapolates the height in between.
+ * <p>
+ * The chain is queried again when the resync interval elapses, when the last resync showed a prediction error
+ * larger than the tolerance, when the estimate runs past the end of the cached round, or while no governance view
+ * could be read. A failed view read keeps the previous view. Every advance of the height is published as a
+ * {@link BlockHeightEvent}.
+ */
+@Slf4j
+@Service
+public class BlockHeightTracker {
+
+    /**
+     * Weight of the latest observation in the smoothed block interval.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    private final OntSdkService ontSdkService;
+
+    private final ParamsConfig paramsConfig;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong publishedHeight = new AtomicLong(-1);
+
+    private volatile Observation observation;
+
+    private volatile boolean resyncRequired;
+
+    @Autowired
+    public BlockHeightTracker(OntSdkService ontSdkService, ParamsConfig paramsConfig,
+                              ApplicationEventPublisher eventPublisher) {
+        this.ontSdkService = ontSdkService;
+        this.paramsConfig = paramsConfig;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public long getBlockHeight() {
+        long now = System.currentTimeMillis();
+        long height = current(now).estimateHeight(now);
+        publish(height);
+        return height;
+    }
+
+    /**
+     * Extrapolates from the last observation without ever querying the chain, -1 before the first observation.
+     */
+    public long getEstimatedBlockHeight() {
+        Observation current = observation;
+        return current == null ? -1 : current.estimateHeight(System.currentTimeMillis());
+    }
+
+    public GovernanceView getGovernanceView() {
+        return current(System.currentTimeMillis()).view;
+    }
+
+    /**
+     * Forces the next read to query the chain, for callers that know the cached state is outdated.
+     */
+    public void requestResync() {
+        resyncRequired = true;
+    }
+
+    private void publish(long height) {
+        long published = publishedHeight.get();
+        if (height > published && publishedHeight.compareAndSet(published, height)) {
+            eventPublisher.publishEvent(new BlockHeightEvent(height));
+        }
+    }
+
+    private Observation current(long now) {
+        Observation current = observation;
+        if (needsResync(current, now)) {
+            current = resync(now);
+        }
+        return current;
+    }
+
+    private boolean needsResync(Observation current, long now) {
+        if (current == null || current.view == null || resyncRequired) {
+            return true;
+        }
+        if (now - current.time >= paramsConfig.getBlockHeightResyncInterval()) {
+            return true;
+        }
+        long roundEndHeight = (long) current.view.height + paramsConfig.getMaxStakingChangeCount();
+        return current.estimateHeight(now) >= roundEndHeight;
+    }
+
+    private synchronized Observation resync(long now) {
+        Observation previous = observation;
+        if (!needsResync(previous, now)) {
+            return previous;
+        }
+        long height = ontSdkService.getBlockHeight();
+        GovernanceView view = ontSdkService.getGovernanceView();
+        if (view == null) {
+            log.warn("Getting governance view failed: view is null");
+            if (previous != null) {
+                view = previous.view;
+            }
+        }
+        long time = System.currentTimeMillis();
+        double blockInterval = paramsConfig.getBlockInterval();
+        if (previous != null) {
+            blockInterval = previous.blockInterval;
+            long predictedHeight = previous.estimateHeight(time);
+            long error = height - predictedHeight;
+            resyncRequired = Math.abs(error) > paramsConfig.getBlockHeightTolerance();
+            if (resyncRequired) {
+                log.info("Block height prediction error is {}, predicted {} but observed {}", error, predictedHeight, height);
+            }
+            if (height > previous.height) {
+                double observedInterval = (double) (time - previous.time) / (height - previous.height);
+                blockInterval = SMOOTHING * observedInterval + (1 - SMOOTHING) * previous.blockInterval;
+            }
+        } else {
+            resyncRequired = false;
+        }
+        Observation current = new Observation(height, time, blockInterval, view);
+        observation = current;
+        return current;
+    }
+
+    private static class Observation {
+
+        private final long height;
+
+        private final long time;
+
+        /**
+         * Smoothed milliseconds per block.
+         */
+        private final double blockInterval;
+
+        private final GovernanceView view;
+
+        private Observation(long height, long time, double blockInterval, GovernanceView view) {
+            this.height = height;
+            this.time = time;
+            this.blockInterval = blockInterval;
+            this.view = view;
+        }
+
+        private long estimateHeight(long now) {
+            if (now <= time || blockInterval <= 0) {
+                return height;
+            }
+            return height + (long) ((now - time) / blockInterval);
+        }
+
+    }
+
+}
@@ -19,7 +19,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.ontio.core.governance.GovernanceView;
 import com.github.ontio.core.governance.PeerPoolItem;
+import com.github.ontio.explorer.statistics.common.IoExecutor;
 import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.LiveStatisticsEvent;
+import com.github.ontio.explorer.statistics.event.NodeRankHistoryEvent;
 import com.github.ontio.explorer.statistics.mapper.*;
 import com.github.ontio.explorer.statistics.model.NodeInfoOnChain;
 import com.github.ontio.explorer.statistics.model.NodeRankChange;
@@ -27,8 +30,10 @@ import com.github.ontio.explorer.statistics.model.NodeRankHistory;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
@@ -54,10 +59,22 @@ public class ConsensusNodeService {
 
     private OntSdkService ontSdkService;
 
+    private BlockHeightTracker blockHeightTracker;
+
+    private NodeStakeHistoryService nodeStakeHistoryService;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private IoExecutor ioExecutor;
+
     @Autowired
     public ConsensusNodeService(ParamsConfig paramsConfig,
                                 ObjectMapper objectMapper,
                                 OntSdkService ontSdkService,
+                                BlockHeightTracker blockHeightTracker,
+                                NodeStakeHistoryService nodeStakeHistoryService,
+                                ApplicationEventPublisher eventPublisher,
+                                IoExecutor ioExecutor,
                                 NodeOverviewMapper nodeOverviewMapper,
                                 NodeRankChangeMapper nodeRankChangeMapper,
                                 NodeInfoOnChainMapper nodeInfoOnChainMapper,
@@ -65,6 +82,10 @@ public class ConsensusNodeService {
                                 NodeInfoOffChainMapper nodeInfoOffChainMapper) {
         this.paramsConfig = paramsConfig;
         this.ontSdkService = ontSdkService;
+        this.blockHeightTracker = blockHeightTracker;
+        this.nodeStakeHistoryService = nodeStakeHistoryService;
+        this.eventPublisher = eventPublisher;
+        this.ioExecutor = ioExecutor;
         this.objectMapper = objectMapper;
         this.nodeOverviewMapper = nodeOverviewMapper;
         this.nodeRankChangeMapper = nodeRankChangeMapper;
@@ -81,6 +102,7 @@ public class ConsensusNodeService {
         try {
             nodeOverviewMapper.updateBlkCntToNxtRnd(blockCntToNxtRound);
             log.info("Updating block count to next round with value {}", blockCntToNxtRound);
+            eventPublisher.publishEvent(new LiveStatisticsEvent(LiveStatisticsEvent.BLOCK_COUNT_TO_NEXT_ROUND, blockCntToNxtRound));
         } catch (Exception e) {
             log.warn("Updating block count to next round with value {} failed: {}", blockCntToNxtRound, e.getMessage());
         }
@@ -103,6 +125,7 @@ public class ConsensusNodeService {
             }
             int result = nodeRankChangeMapper.deleteAll();
             log.warn("Delete {} records in node rank history", result);
+            List<NodeRankChange> nodeRankChanges = new ArrayList<>();
             for (NodeInfoOnChain currentRoundNode : currentNodeInfoOnChain) {
                 NodeRankHistory lastRoundNodeRank = nodeRankHistoryMapper.selectNodeRankHistoryByPublicKeyAndBlockHeight(currentRoundNode.getPublicKey(), lastRoundBlockHeight);
                 int rankChange = 0;
@@ -117,44 +140,62 @@ public class ConsensusNodeService {
                         .changeBlockHeight(currentBlockHeight)
                         .build();
                 nodeRankChangeMapper.insert(nodeRankChange);
+                nodeRankChanges.add(nodeRankChange);
             }
+            eventPublisher.publishEvent(new LiveStatisticsEvent(LiveStatisticsEvent.NODE_RANK_CHANGE, nodeRankChanges));
         } catch (Exception e) {
             log.warn("Updating node rank change failed: {}", e.getMessage());
         }
     }
 
-    public void updateNodeRankHistory() {
-        long currentRoundBlockHeight;
-        try {
-            currentRoundBlockHeight = nodeRankHistoryMapper.selectCurrentRoundBlockHeight();
-        } catch (NullPointerException e) {
-            initNodeRankHistory();
-            return;
+    /**
+     * Returns the block height at which the next rank history snapshot is due. Without any history the snapshot
+     * for the current round, which started at the governance view height, is due immediately.
+     */
+    public long getNextRoundBlockHeight() {
+        Long currentRoundBlockHeight = nodeRankHistoryMapper.selectCurrentRoundBlockHeight();
+        if (currentRoundBlockHeight == null) {
+            GovernanceView view = blockHeightTracker.getGovernanceView();
+            return view.height;
+        }
+        return currentRoundBlockHeight + paramsConfig.getMaxStakingChangeCount();
+    }
+
+    /**
+     * Records the rank of each node for the round that has just begun.
+     *
+     * @return true if a new round has been recorded
+     */
+    public boolean updateNodeRankHistory() {
+        Long currentRoundBlockHeight = nodeRankHistoryMapper.selectCurrentRoundBlockHeight();
+        if (currentRoundBlockHeight == null) {
+            return initNodeRankHistory();
         }
         try {
             long blockHeight = ontSdkService.getBlockHeight();
             long nextRoundBlockHeight = currentRoundBlockHeight + paramsConfig.getMaxStakingChangeCount();
             if (nextRoundBlockHeight > blockHeight) {
                 log.info("Current block height is {}, next round block height should be {} ", blockHeight, nextRoundBlockHeight);
-                return;
+                return false;
             }
-            updateNodeRankHistoryFromNodeInfoOnChain(nextRoundBlockHeight);
+            return updateNodeRankHistoryFromNodeInfoOnChain(nextRoundBlockHeight);
         } catch (Exception e) {
             log.warn("Updating node position history failed {}", e.getMessage());
+            return false;
         }
     }
 
-    private void initNodeRankHistory() {
+    private boolean initNodeRankHistory() {
         GovernanceView view = ontSdkService.getGovernanceView();
         if (view == null) {
             log.warn("Getting governance view in consensus node service failed:");
-            return;
+            return false;
         }
         long currentRoundBlockHeight = view.height - paramsConfig.getMaxStakingChangeCount();
-        updateNodeRankHistoryFromNodeInfoOnChain(currentRoundBlockHeight);
+        return updateNodeRankHistoryFromNodeInfoOnChain(currentRoundBlockHeight);
     }
 
-    private void updateNodeRankHistoryFromNodeInfoOnChain(long currentRoundBlockHeight) {
+    private boolean updateNodeRankHistoryFromNodeInfoOnChain(long currentRoundBlockHeight) {
         log.info("Updating node position history from node info on chain task begin");
         List<NodeInfoOnChain> nodeInfoOnChainList = nodeInfoOnChainMapper.selectAll();
         List<NodeRankHistory> nodePositionHistoryList = new ArrayList<>();
@@ -164,18 +205,21 @@ public class ConsensusNodeService {
         try {
             nodeRankHistoryMapper.batchInsertSelective(nodePositionHistoryList);
             log.info("Updating node position history from node info on chain task end");
+            eventPublisher.publishEvent(new NodeRankHistoryEvent(currentRoundBlockHeight));
+            return true;
         } catch (Exception e) {
             log.info("Updating node position history from node info on chain task failed: {}", e.getMessage());
+            return false;
         }
     }
 
     private long getBlockCountToNextRound() {
-        GovernanceView view = ontSdkService.getGovernanceView();
+        GovernanceView view = blockHeightTracker.getGovernanceView();
         if (view == null) {
             log.warn("Getting governance view in consensus node service failed:");
             return -1;
         }
-        long blockHeight = ontSdkService.getBlockHeight();
+        long blockHeight = blockHeightTracker.getBlockHeight();
         return paramsConfig.getMaxStakingChangeCount() - (blockHeight - view.height);
     }
 
@@ -185,50 +229,57 @@ public class ConsensusNodeService {
         nodes.sort((v1, v2) -> Long.compare(v2.getInitPos() + v2.getTotalPos(), v1.getInitPos() + v1.getTotalPos()));
         List<NodeInfoOnChain> nodeInfos = calcNodeInfo(nodes);
         nodes = matchNodeName(nodeInfos);
-        updateNodesTable(nodes);
-    }
-
-    private Map getPeerPool() {
+        if (updateNodesTable(nodes)) {
+            eventPublisher.publishEvent(new LiveStatisticsEvent(LiveStatisticsEvent.CONSENSUS_NODES, nodes));
+        }
         try {
-            return ontSdkService.getSdk().nativevm().governance().getPeerPoolMap();
+            nodeStakeHistoryService.record(nodes);
         } catch (Exception e) {
-            log.error("Get peer pool map failed: {}", e.getMessage());
-            ontSdkService.switchSyncNode();
-            return getPeerPool();
+            log.warn("Recording node stake history failed: {}", e.getMessage());
         }
     }
 
+    private Map getPeerPool() {
+        return ontSdkService.getPeerPoolMap();
+    }
+
+    /**
+     * The attributes of the peers are fetched concurrently.
+     */
     private List<NodeInfoOnChain> getNodesWithAttributes(Map peerPool) {
-        List<NodeInfoOnChain> nodes = new ArrayList<>();
+        List<PeerPoolItem> items = new ArrayList<>();
         for (Object obj : peerPool.values()) {
             PeerPoolItem item = (PeerPoolItem) obj;
             // candidate nodes and consensus nodes
-            if (item.status != 1 && item.status != 2) {
-                continue;
+            if (item.status == 1 || item.status == 2) {
+                items.add(item);
             }
+        }
+        return ioExecutor.map(IoExecutor.Resource.CHAIN, items, item -> {
             HashMap<String, Object> attribute = getAttributes(item.peerPubkey);
             NodeInfoOnChain node = new NodeInfoOnChain(item);
             node.setMaxAuthorize(Long.parseLong(attribute.get("maxAuthorize").toString()));
             node.setNodeProportion((100 - (int) attribute.get("t1PeerCost")) + "%");
-            nodes.add(node);
-        }
-        return nodes;
+            return node;
+        });
     }
 
+    /**
+     * The node that returned attributes that cannot be parsed is left for the next run.
+     */
     private HashMap<String, Object> getAttributes(String pubKey) {
         TypeReference<HashMap<String, Object>> typeRef = new TypeReference<HashMap<String, Object>>() {
         };
+        String result = ontSdkService.getPeerAttributes(pubKey);
         try {
-            String result = ontSdkService.getSdk().nativevm().governance().getPeerAttributes(pubKey);
             return objectMapper.readValue(result, typeRef);
-        } catch (Exception e) {
-            log.error("Getting {}'s peer attributes failed: {}", pubKey, e.getMessage());
+        } catch (IOException e) {
             ontSdkService.switchSyncNode();
-            return getAttributes(pubKey);
+            throw new IllegalStateException("Parsing " + pubKey + "'s peer attributes failed: " + e.getMessage(), e);
         }
     }
 
-    private List<NodeInfoOnChain> calcNodeInfo(List<NodeInfoOnChain> nodes) {
+    List<NodeInfoOnChain> calcNodeInfo(List<NodeInfoOnChain> nodes) {
         for (int i = 0; i < nodes.size(); i++) {
             NodeInfoOnChain node = nodes.get(i);
             node.setNodeRank(i + 1);
@@ -244,19 +295,24 @@ public class ConsensusNodeService {
         return nodes;
     }
 
-    private void updateNodesTable(List<NodeInfoOnChain> nodes) {
+    /**
+     * Returns whether the nodes were written to the table.
+     */
+    private boolean updateNodesTable(List<NodeInfoOnChain> nodes) {
         if (nodes.size() == 0) {
             log.warn("Updating NodeInfoOnchain table failed, nodes list is empty.");
-            return;
+            return false;
         }
         int result = nodeInfoOnChainMapper.deleteAll();
         log.info("Updating NodeInfoOnchain table: delete {} nodes info.", result);
         try {
             result = nodeInfoOnChainMapper.batchInsert(nodes);
             log.info("Updating tbl_node_info_on_chain: insert {} nodes info.", result);
+            return true;
         } catch (Exception e) {
             log.error("Inserting {} into tbl_node_info_on_chain failed.", nodes.toString());
             log.error("Updating tbl_node_info_on_chain failed: {}", e.getMessage());
+            return false;
         }
     }
 
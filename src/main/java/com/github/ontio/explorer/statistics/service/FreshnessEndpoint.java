@@ -0,0 +1,40 @@
+package com.github.ontio.explorer.statistics.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthAggregator;
+import org.springframework.boot.actuate.health.OrderedHealthAggregator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the lag of every data product at {@code /actuator/freshness}. It is kept out of {@code /actuator/health}
+ * on purpose, a lagging pipeline must not get a serving instance marked unhealthy.
+ */
+@Component
+@Endpoint(id = "freshness")
+public class FreshnessEndpoint {
+
+    private final FreshnessMonitor freshnessMonitor;
+
+    private final HealthAggregator aggregator = new OrderedHealthAggregator();
+
+    @Autowired
+    public FreshnessEndpoint(FreshnessMonitor freshnessMonitor) {
+        this.freshnessMonitor = freshnessMonitor;
+    }
+
+    @ReadOperation
+    public Health freshness() {
+        Map<String, Health> products = new LinkedHashMap<>();
+        products.put("dailySummary", freshnessMonitor.health(FreshnessMonitor.Product.DAILY_SUMMARY));
+        products.put("nodeInfo", freshnessMonitor.health(FreshnessMonitor.Product.NODE_INFO));
+        products.put("nodeRankHistory", freshnessMonitor.health(FreshnessMonitor.Product.NODE_RANK_HISTORY));
+        return aggregator.aggregate(products);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.LiveStatisticsEvent;
+import com.github.ontio.explorer.statistics.mapper.BlockMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far each data product trails its source.
+ * <p>
+ * The lags are computed from watermarks the services already keep in memory: the last cached daily summary, the
+ * last cached rank history round, the time consensus nodes were last written and the block height extrapolated by
+ * {@link BlockHeightTracker} without querying the chain. Only the latest block time is read from the database, by
+ * primary key and at most once a minute. Each lag is exported as a {@code statistics.freshness.lag} gauge and
+ * reported by {@link FreshnessEndpoint}.
+ */
+@Slf4j
+@Service
+public class FreshnessMonitor {
+
+    private static final long BLOCK_TIME_TTL = TimeUnit.MINUTES.toMillis(1);
+
+    @AllArgsConstructor
+    public enum Product {
+
+        /**
+         * Seconds from the end of the last summarized day to the latest block.
+         */
+        DAILY_SUMMARY("daily_summary", "seconds"),
+
+        /**
+         * Seconds since the consensus nodes were last written.
+         */
+        NODE_INFO("node_info_on_chain", "seconds"),
+
+        /**
+         * Blocks since the round after the last recorded one began.
+         */
+        NODE_RANK_HISTORY("node_rank_history", "blocks");
+
+        private final String tag;
+
+        private final String unit;
+
+    }
+
+    private final ParamsConfig paramsConfig;
+
+    private final BlockMapper blockMapper;
+
+    private final StatisticsQueryService statisticsQueryService;
+
+    private final NodeRankHistoryService nodeRankHistoryService;
+
+    private final BlockHeightTracker blockHeightTracker;
+
+    private volatile long nodeInfoUpdateTime;
+
+    private volatile long latestBlockTime;
+
+    private volatile long latestBlockTimeReadAt;
+
+    @Autowired
+    public FreshnessMonitor(ParamsConfig paramsConfig, BlockMapper blockMapper,
+                            StatisticsQueryService statisticsQueryService,
+                            NodeRankHistoryService nodeRankHistoryService, BlockHeightTracker blockHeightTracker,
+                            MeterRegistry registry) {
+        this.paramsConfig = paramsConfig;
+        this.blockMapper = blockMapper;
+        this.statisticsQueryService = statisticsQueryService;
+        this.nodeRankHistoryService = nodeRankHistoryService;
+        this.blockHeightTracker = blockHeightTracker;
+        for (Product product : Product.values()) {
+            Gauge.builder("statistics.freshness.lag", this, monitor -> monitor.gaugeValue(product))
+                    .tag("product", product.tag)
+                    .baseUnit(product.unit)
+                    .register(registry);
+        }
+    }
+
+    @EventListener
+    public void onLiveStatistics(LiveStatisticsEvent event) {
+        if (LiveStatisticsEvent.CONSENSUS_NODES.equals(event.getName())) {
+            nodeInfoUpdateTime = System.currentTimeMillis() / 1000;
+        }
+    }
+
+    /**
+     * The lag of the product, null while its watermark is unknown.
+     */
+    public Long getLag(Product product) {
+        switch (product) {
+            case DAILY_SUMMARY:
+                Integer summaryTime = statisticsQueryService.getLastDailySummaryTime();
+                if (summaryTime == null) {
+                    return null;
+                }
+                return Math.max(0, getLatestBlockTime() - (summaryTime + Constants.ONE_DAY_IN_SEC));
+            case NODE_INFO:
+                if (nodeInfoUpdateTime == 0) {
+                    return null;
+                }
+                return System.currentTimeMillis() / 1000 - nodeInfoUpdateTime;
+            case NODE_RANK_HISTORY:
+                Long roundHeight = nodeRankHistoryService.getLatestRoundBlockHeight();
+                long blockHeight = blockHeightTracker.getEstimatedBlockHeight();
+                if (roundHeight == null || blockHeight < 0) {
+                    return null;
+                }
+                long nextRoundHeight = roundHeight + paramsConfig.getMaxStakingChangeCount();
+                return Math.max(0, blockHeight - nextRoundHeight);
+            default:
+                throw new IllegalArgumentException(product.name());
+        }
+    }
+
+    public Health health(Product product) {
+        long maxLag = getMaxLag(product);
+        Long lag;
+        try {
+            lag = getLag(product);
+        } catch (Exception e) {
+            return Health.down(e).withDetail("maxLag", maxLag).build();
+        }
+        Health.Builder builder = lag == null ? Health.unknown() : lag <= maxLag ? Health.up() : Health.down();
+        return builder.withDetail("lag", lag == null ? "unknown" : lag)
+                .withDetail("maxLag", maxLag)
+                .withDetail("unit", product.unit)
+                .build();
+    }
+
+    private long getMaxLag(Product product) {
+        switch (product) {
+            case DAILY_SUMMARY:
+                return paramsConfig.getDailySummaryMaxLag();
+            case NODE_INFO:
+                return paramsConfig.getNodeInfoMaxLag();
+            default:
+                return paramsConfig.getNodeRankHistoryMaxLag();
+        }
+    }
+
+    private double gaugeValue(Product product) {
+        try {
+            Long lag = getLag(product);
+            return lag == null ? Double.NaN : lag;
+        } catch (Exception e) {
+            log.debug("Computing {} lag failed: {}", product, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    private long getLatestBlockTime() {
+        long now = System.currentTimeMillis();
+        if (now - latestBlockTimeReadAt >= BLOCK_TIME_TTL) {
+            Integer blockTime = blockMapper.selectLatestBlockTime();
+            latestBlockTime = blockTime == null ? 0 : blockTime;
+            latestBlockTimeReadAt = now;
+        }
+        return latestBlockTime;
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.LiveStatisticsEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans out {@link LiveStatisticsEvent}s to the subscribers of the live stream.
+ * <p>
+ * Subscriptions are asynchronous requests, so an idle subscriber holds a connection but no thread. Publishers only
+ * queue events: every subscriber has a bounded queue that drops its oldest event when full, drained by at most one
+ * sender thread at a time, so a slow client only delays itself. A client whose write fails, or stays blocked longer
+ * than {@code config.live-stream-send-timeout}, is dropped. New subscribers first receive the latest value of every
+ * statistic, and a comment is sent periodically so that connections of departed clients are detected.
+ */
+@Slf4j
+@Service
+public class LiveStatisticsService {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Object> latest = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-statistics-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService senders;
+
+    private final int queueSize;
+
+    private final long sendTimeout;
+
+    @Autowired
+    public LiveStatisticsService(ParamsConfig paramsConfig) {
+        this.queueSize = paramsConfig.getLiveStreamQueueSize();
+        this.sendTimeout = paramsConfig.getLiveStreamSendTimeout();
+        AtomicInteger count = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "live-statistics-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = paramsConfig.getLiveStreamHeartbeatInterval();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        latest.forEach((name, data) -> subscriber.offer(event(name, data)));
+        log.info("Live statistics subscribed, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onLiveStatistics(LiveStatisticsEvent event) {
+        latest.put(event.getName(), event.getData());
+        broadcast(() -> event(event.getName(), event.getData()));
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                subscriber.drop("no write progress in " + sendTimeout + " ms");
+            }
+        }
+        broadcast(() -> SseEmitter.event().comment("heartbeat"));
+    }
+
+    /**
+     * An event builder appends to its text when it is built, so every emitter gets its own.
+     */
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event.get());
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(String name, Object data) {
+        return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * The pending events of one client, the queue and the draining flag are guarded by the subscriber.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+
+        private boolean draining;
+
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (queue.size() >= queueSize) {
+                    queue.pollFirst();
+                }
+                queue.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.debug("Live statistics closed, not sending");
+            }
+        }
+
+        /**
+         * Stays marked as draining after a failed write, so a dropped client never gets another sender.
+         */
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = queue.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                sendingSince = System.currentTimeMillis();
+                try {
+                    emitter.send(event);
+                } catch (Exception e) {
+                    drop(e.getMessage());
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+            }
+        }
+
+        private boolean isStalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeout;
+        }
+
+        private void drop(String reason) {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            synchronized (this) {
+                queue.clear();
+            }
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                log.debug("Completing live statistics subscriber failed: {}", e.getMessage());
+            }
+            log.debug("Dropping live statistics subscriber: {}", reason);
+        }
+
+    }
+
+}
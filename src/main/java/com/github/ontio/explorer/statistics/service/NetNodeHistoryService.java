@@ -0,0 +1,122 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.Granularity;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.mapper.NetNodeChangeMapper;
+import com.github.ontio.explorer.statistics.mapper.NetNodeStatMapper;
+import com.github.ontio.explorer.statistics.model.NetNodeChange;
+import com.github.ontio.explorer.statistics.model.NetNodeInfo;
+import com.github.ontio.explorer.statistics.model.NetNodeStat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the history of the network nodes: node counts by version, country, consensus flag and active state for
+ * every refresh, and a log of the nodes that changed.
+ * <p>
+ * Raw samples older than the raw retention are averaged into daily buckets, daily buckets and the change log are
+ * deleted after their own retention.
+ */
+@Slf4j
+@Service
+public class NetNodeHistoryService {
+
+    static final String VERSION = "version";
+
+    static final String COUNTRY = "country";
+
+    static final String CONSENSUS = "consensus";
+
+    static final String ACTIVE = "active";
+
+    static final String TOTAL = "total";
+
+    private final ParamsConfig paramsConfig;
+
+    private final NetNodeStatMapper netNodeStatMapper;
+
+    private final NetNodeChangeMapper netNodeChangeMapper;
+
+    @Autowired
+    public NetNodeHistoryService(ParamsConfig paramsConfig,
+                                 NetNodeStatMapper netNodeStatMapper,
+                                 NetNodeChangeMapper netNodeChangeMapper) {
+        this.paramsConfig = paramsConfig;
+        this.netNodeStatMapper = netNodeStatMapper;
+        this.netNodeChangeMapper = netNodeChangeMapper;
+    }
+
+    public void saveStatistics(int time, NodeCounter counter) {
+        List<NetNodeStat> stats = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> dimension : counter.counts.entrySet()) {
+            for (Map.Entry<String, Integer> value : dimension.getValue().entrySet()) {
+                stats.add(NetNodeStat.builder()
+                        .time(time)
+                        .granularity(Granularity.RAW.seconds())
+                        .dimension(dimension.getKey())
+                        .dimensionValue(value.getKey())
+                        .nodeCount(value.getValue())
+                        .build());
+            }
+        }
+        if (stats.isEmpty()) {
+            return;
+        }
+        int result = netNodeStatMapper.batchInsert(stats);
+        log.info("Insert {} network node statistics at {}", result, time);
+    }
+
+    public void saveChanges(List<NetNodeChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int result = netNodeChangeMapper.batchInsert(changes);
+        log.info("Insert {} network node changes", result);
+    }
+
+    public void compact(int now) {
+        int rawBefore = Granularity.DAY.bucketOf(now - paramsConfig.getNetNodeRawRetentionDays() * Constants.ONE_DAY_IN_SEC);
+        int result = netNodeStatMapper.downsample(Granularity.RAW.seconds(), Granularity.DAY.seconds(), rawBefore);
+        if (result != 0) {
+            result = netNodeStatMapper.deleteBefore(Granularity.RAW.seconds(), rawBefore);
+            log.info("Downsample {} raw network node statistics before {} to daily", result, rawBefore);
+        }
+        if (paramsConfig.getNetNodeDailyRetentionDays() > 0) {
+            int dailyBefore = now - paramsConfig.getNetNodeDailyRetentionDays() * Constants.ONE_DAY_IN_SEC;
+            result = netNodeStatMapper.deleteBefore(Granularity.DAY.seconds(), dailyBefore);
+            log.info("Delete {} daily network node statistics before {}", result, dailyBefore);
+        }
+        int changeBefore = now - paramsConfig.getNetNodeChangeRetentionDays() * Constants.ONE_DAY_IN_SEC;
+        result = netNodeChangeMapper.deleteBefore(changeBefore);
+        log.info("Delete {} network node changes before {}", result, changeBefore);
+    }
+
+    /**
+     * Counts the nodes of one refresh by dimension while the feed is streamed.
+     */
+    public static class NodeCounter {
+
+        private final Map<String, Map<String, Integer>> counts = new HashMap<>();
+
+        public void add(NetNodeInfo node) {
+            increase(TOTAL, "");
+            increase(VERSION, node.getVersion());
+            increase(COUNTRY, node.getCountry());
+            increase(CONSENSUS, String.valueOf(node.getIsConsensus()));
+            increase(ACTIVE, String.valueOf(node.getIsActive()));
+        }
+
+        private void increase(String dimension, String value) {
+            counts.computeIfAbsent(dimension, k -> new HashMap<>()).merge(value == null ? "" : value, 1, Integer::sum);
+        }
+
+    }
+
+}
@@ -1,15 +1,27 @@
 package com.github.ontio.explorer.statistics.service;
 
-import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONReader;
 import com.github.ontio.explorer.statistics.common.ParamsConfig;
 import com.github.ontio.explorer.statistics.mapper.NetNodeInfoMapper;
+import com.github.ontio.explorer.statistics.model.NetNodeChange;
 import com.github.ontio.explorer.statistics.model.NetNodeInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.LinkedHashMap;
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -21,42 +33,162 @@ public class NodeMapService {
 
     private NetNodeInfoMapper netNodeInfoMapper;
 
+    private NetNodeHistoryService netNodeHistoryService;
+
+    /**
+     * Last written state of each node by IP.
+     */
+    private final Map<String, NodeState> snapshot = new ConcurrentHashMap<>();
+
+    private volatile boolean snapshotLoaded;
+
     @Autowired
-    public NodeMapService(ParamsConfig paramsConfig, NetNodeInfoMapper netNodeInfoMapper) {
+    public NodeMapService(ParamsConfig paramsConfig, NetNodeInfoMapper netNodeInfoMapper,
+                          NetNodeHistoryService netNodeHistoryService) {
         this.restTemplate = new RestTemplate();
         this.paramsConfig = paramsConfig;
         this.netNodeInfoMapper = netNodeInfoMapper;
+        this.netNodeHistoryService = netNodeHistoryService;
     }
 
-    public void getNodesInfo() {
-        JSONArray result;
+    @PostConstruct
+    public void loadSnapshot() {
         try {
-            result = restTemplate.getForObject(paramsConfig.getNodeMapUrl(), JSONArray.class);
+            List<NetNodeInfo> nodes = netNodeInfoMapper.selectAll();
+            snapshot.clear();
+            for (NetNodeInfo node : nodes) {
+                snapshot.put(node.getIp(), new NodeState(node));
+            }
+            snapshotLoaded = true;
+            log.info("Loaded {} network nodes into snapshot", snapshot.size());
         } catch (Exception e) {
-            log.warn("Getting nodes in network failed: {}", e.getMessage());
-            return;
+            log.warn("Loading network node snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    public void getNodesInfo() {
+        if (!snapshotLoaded) {
+            loadSnapshot();
         }
-        if (result == null) {
-            log.warn("Getting nodes in network failed: null result received");
+        int time = (int) (System.currentTimeMillis() / 1000);
+        NetNodeHistoryService.NodeCounter counter = new NetNodeHistoryService.NodeCounter();
+        Integer count = restTemplate.execute(paramsConfig.getNodeMapUrl(), HttpMethod.GET, null,
+                response -> readNodes(response, time, counter));
+        log.info("Received {} nodes in network", count);
+        netNodeHistoryService.saveStatistics(time, counter);
+        netNodeHistoryService.compact(time);
+    }
+
+    /**
+     * Parses the feed element by element straight from the response body and writes the nodes in batches, so only
+     * one batch of nodes is held in memory whatever the size of the feed.
+     */
+    private Integer readNodes(ClientHttpResponse response, int time, NetNodeHistoryService.NodeCounter counter)
+            throws IOException {
+        int batchSize = paramsConfig.getNodeMapBatchSize();
+        List<NetNodeInfo> batch = new ArrayList<>(batchSize);
+        int count = 0;
+        try (JSONReader reader = new JSONReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+            reader.startArray();
+            while (reader.hasNext()) {
+                NetNodeInfo node = NetNodeInfo.readFrom(reader);
+                counter.add(node);
+                count++;
+                if (!isChanged(node)) {
+                    continue;
+                }
+                batch.add(node);
+                if (batch.size() >= batchSize) {
+                    writeNodes(batch, time);
+                    batch.clear();
+                }
+            }
+            reader.endArray();
+        }
+        writeNodes(batch, time);
+        return count;
+    }
+
+    /**
+     * A node needs to be written if it is unknown, or if its content changed and it is newer than the written state,
+     * older information would be ignored by the upsert anyway.
+     */
+    private boolean isChanged(NetNodeInfo node) {
+        NodeState state = snapshot.get(node.getIp());
+        if (state == null) {
+            return true;
+        }
+        return state.hash != NodeState.contentHash(node)
+                && node.getLastActiveTime() != null && node.getLastActiveTime() > state.lastActiveTime;
+    }
+
+    /**
+     * Upserts the batch in a single statement. If the statement fails, the nodes are retried one by one so that a
+     * single bad record does not drop the whole batch. Written nodes that are new or changed more than their last
+     * active time are appended to the change log.
+     */
+    private void writeNodes(List<NetNodeInfo> nodes, int time) {
+        if (nodes.isEmpty()) {
             return;
         }
-        for (Object obj : result) {
-            LinkedHashMap jsonObject = (LinkedHashMap) obj;
-            NetNodeInfo netNodeInfo = new NetNodeInfo(jsonObject);
-            try {
-                if (netNodeInfoMapper.existsWithPrimaryKey(netNodeInfo.getIp())) {
-                    int updateResult = netNodeInfoMapper.updateWithLatestInfo(netNodeInfo);
-                    if (updateResult != 0) {
-                        log.info("Update network node with ip {}", netNodeInfo.getIp());
-                    }
-                } else {
-                    netNodeInfoMapper.insert(netNodeInfo);
-                    log.info("Insert network node with ip {}", netNodeInfo.getIp());
+        List<NetNodeChange> changes = new ArrayList<>(nodes.size());
+        try {
+            int result = netNodeInfoMapper.batchUpsert(nodes);
+            log.info("Upsert {} network nodes, {} rows affected", nodes.size(), result);
+            for (NetNodeInfo netNodeInfo : nodes) {
+                markWritten(netNodeInfo, time, changes);
+            }
+        } catch (Exception e) {
+            log.warn("Upsert {} network nodes failed: {}", nodes.size(), e.getMessage());
+            for (NetNodeInfo netNodeInfo : nodes) {
+                try {
+                    netNodeInfoMapper.batchUpsert(Collections.singletonList(netNodeInfo));
+                    markWritten(netNodeInfo, time, changes);
+                } catch (Exception ex) {
+                    log.warn("Update node info {} failed: {}", netNodeInfo, ex.getMessage());
                 }
-            } catch (Exception e) {
-                log.warn("Update node info {} failed: {}", netNodeInfo, e.getMessage());
             }
         }
+        try {
+            netNodeHistoryService.saveChanges(changes);
+        } catch (Exception e) {
+            log.warn("Inserting {} network node changes failed: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    private void markWritten(NetNodeInfo node, int time, List<NetNodeChange> changes) {
+        NodeState state = new NodeState(node);
+        NodeState previous = snapshot.put(node.getIp(), state);
+        if (previous == null) {
+            changes.add(new NetNodeChange(node, time, NetNodeChange.NEW));
+        } else if (previous.changeHash != state.changeHash) {
+            changes.add(new NetNodeChange(node, time, NetNodeChange.UPDATE));
+        }
+    }
+
+    private static class NodeState {
+
+        private final int hash;
+
+        /**
+         * Hash of the attributes whose changes are logged, every heartbeat moves the last active time.
+         */
+        private final int changeHash;
+
+        private final long lastActiveTime;
+
+        private NodeState(NetNodeInfo node) {
+            this.hash = contentHash(node);
+            this.changeHash = Objects.hash(node.getVersion(), node.getIsConsensus(), node.getIsActive(),
+                    node.getCountry(), node.getLongitude(), node.getLatitude());
+            this.lastActiveTime = node.getLastActiveTime() == null ? 0 : node.getLastActiveTime();
+        }
+
+        private static int contentHash(NetNodeInfo node) {
+            return Objects.hash(node.getVersion(), node.getIsConsensus(), node.getIsActive(), node.getLastActiveTime(),
+                    node.getCountry(), node.getLongitude(), node.getLatitude());
+        }
+
     }
 
 }
@@ -0,0 +1,139 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.NodeRankHistoryEvent;
+import com.github.ontio.explorer.statistics.mapper.NodeRankHistoryMapper;
+import com.github.ontio.explorer.statistics.model.NodeRankHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Serves node rank trajectories and round rankings from {@code tbl_node_rank_history}.
+ * <p>
+ * The most recent rounds are kept in memory, ranks of a round never change once written, so the cache only has to be
+ * dropped when a new round is inserted. Queries reaching further back than the cached rounds go to the database.
+ */
+@Slf4j
+@Service
+public class NodeRankHistoryService {
+
+    private final ParamsConfig paramsConfig;
+
+    private final NodeRankHistoryMapper nodeRankHistoryMapper;
+
+    /**
+     * Ranks of the recent rounds by round block height, null when it has to be reloaded.
+     */
+    private volatile NavigableMap<Long, List<NodeRankHistory>> recentRounds;
+
+    @Autowired
+    public NodeRankHistoryService(ParamsConfig paramsConfig, NodeRankHistoryMapper nodeRankHistoryMapper) {
+        this.paramsConfig = paramsConfig;
+        this.nodeRankHistoryMapper = nodeRankHistoryMapper;
+    }
+
+    @EventListener
+    public synchronized void onNodeRankHistory(NodeRankHistoryEvent event) {
+        recentRounds = null;
+        log.info("Node rank history cache invalidated by round {}", event.getBlockHeight());
+    }
+
+    /**
+     * Ranks of the node in the last {@code rounds} rounds, oldest first. Rounds the node was not ranked in are
+     * missing from the result.
+     */
+    public List<NodeRankHistory> getNodeRankHistory(String publicKey, int rounds) {
+        if (rounds <= paramsConfig.getNodeRankCacheRounds()) {
+            List<NodeRankHistory> history = new ArrayList<>();
+            for (List<NodeRankHistory> ranks : lastRounds(rounds).values()) {
+                for (NodeRankHistory rank : ranks) {
+                    if (publicKey.equals(rank.getPublicKey())) {
+                        history.add(rank);
+                        break;
+                    }
+                }
+            }
+            return history;
+        }
+        List<Long> heights = nodeRankHistoryMapper.selectRecentRoundBlockHeights(rounds);
+        if (heights.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Long fromHeight = heights.get(heights.size() - 1);
+        return nodeRankHistoryMapper.selectNodeRankHistoryByPublicKeyFromBlockHeight(publicKey, fromHeight);
+    }
+
+    /**
+     * Ranks of all nodes in the round starting at the block height, or in the latest round if it is null.
+     */
+    public List<NodeRankHistory> getRoundRanks(Long blockHeight) {
+        NavigableMap<Long, List<NodeRankHistory>> cached = recentRounds();
+        if (blockHeight == null) {
+            return cached.isEmpty() ? Collections.emptyList() : cached.lastEntry().getValue();
+        }
+        List<NodeRankHistory> ranks = cached.get(blockHeight);
+        if (ranks != null) {
+            return ranks;
+        }
+        if (!cached.isEmpty() && blockHeight > cached.lastKey()) {
+            return Collections.emptyList();
+        }
+        return nodeRankHistoryMapper.selectNodeRankHistoryListByBlockHeight(blockHeight);
+    }
+
+    /**
+     * Block height of the latest recorded round, null if there is none.
+     */
+    public Long getLatestRoundBlockHeight() {
+        NavigableMap<Long, List<NodeRankHistory>> cached = recentRounds();
+        return cached.isEmpty() ? null : cached.lastKey();
+    }
+
+    private NavigableMap<Long, List<NodeRankHistory>> lastRounds(int rounds) {
+        NavigableMap<Long, List<NodeRankHistory>> cached = recentRounds();
+        if (rounds >= cached.size()) {
+            return cached;
+        }
+        Long fromHeight = cached.descendingKeySet().stream().skip(rounds - 1).findFirst().orElse(cached.firstKey());
+        return cached.tailMap(fromHeight, true);
+    }
+
+    private NavigableMap<Long, List<NodeRankHistory>> recentRounds() {
+        NavigableMap<Long, List<NodeRankHistory>> cached = recentRounds;
+        if (cached != null) {
+            return cached;
+        }
+        return loadRecentRounds();
+    }
+
+    /**
+     * Synchronized with the invalidation, so a load that raced with a new round cannot overwrite the invalidation
+     * with stale rounds.
+     */
+    private synchronized NavigableMap<Long, List<NodeRankHistory>> loadRecentRounds() {
+        if (recentRounds != null) {
+            return recentRounds;
+        }
+        NavigableMap<Long, List<NodeRankHistory>> rounds = new TreeMap<>();
+        List<Long> heights = nodeRankHistoryMapper.selectRecentRoundBlockHeights(paramsConfig.getNodeRankCacheRounds());
+        if (!heights.isEmpty()) {
+            Long fromHeight = heights.get(heights.size() - 1);
+            for (NodeRankHistory rank : nodeRankHistoryMapper.selectNodeRankHistoryListFromBlockHeight(fromHeight)) {
+                rounds.computeIfAbsent(rank.getBlockHeight(), key -> new ArrayList<>()).add(rank);
+            }
+        }
+        NavigableMap<Long, List<NodeRankHistory>> loaded = Collections.unmodifiableNavigableMap(rounds);
+        recentRounds = loaded;
+        log.info("Loaded {} rounds of node rank history into cache", loaded.size());
+        return loaded;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.Granularity;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.mapper.NodeStakeHistoryMapper;
+import com.github.ontio.explorer.statistics.model.NodeInfoOnChain;
+import com.github.ontio.explorer.statistics.model.NodeStakeHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the stake of each consensus node over time.
+ * <p>
+ * Every refresh stores a raw sample per node. Completed hours are rolled up from the raw samples and completed days
+ * from the hourly buckets, so each granularity is complete up to its last finished bucket and range queries read the
+ * coarsest table rows that fit. Raw samples and hourly buckets are deleted after their retention, daily buckets are
+ * kept.
+ */
+@Slf4j
+@Service
+public class NodeStakeHistoryService {
+
+    private static final int ONE_DAY = Constants.ONE_DAY_IN_SEC;
+
+    private final ParamsConfig paramsConfig;
+
+    private final NodeStakeHistoryMapper nodeStakeHistoryMapper;
+
+    /**
+     * End of the last rolled up bucket per granularity, 0 until the first rollup after startup.
+     */
+    private int hourRolledUpTo;
+
+    private int dayRolledUpTo;
+
+    @Autowired
+    public NodeStakeHistoryService(ParamsConfig paramsConfig, NodeStakeHistoryMapper nodeStakeHistoryMapper) {
+        this.paramsConfig = paramsConfig;
+        this.nodeStakeHistoryMapper = nodeStakeHistoryMapper;
+    }
+
+    public void record(List<NodeInfoOnChain> nodes) {
+        int time = (int) (System.currentTimeMillis() / 1000);
+        List<NodeStakeHistory> samples = new ArrayList<>(nodes.size());
+        for (NodeInfoOnChain node : nodes) {
+            samples.add(new NodeStakeHistory(node, time));
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        int result = nodeStakeHistoryMapper.batchInsert(samples);
+        log.info("Insert {} node stake samples at {}", result, time);
+        compact(time);
+    }
+
+    public List<NodeStakeHistory> getStakeHistory(String publicKey, int startTime, int endTime) {
+        Granularity granularity = selectGranularity(startTime, endTime);
+        return nodeStakeHistoryMapper.selectHistory(publicKey, granularity.seconds(), startTime, endTime);
+    }
+
+    /**
+     * Raw samples for ranges up to a day, hourly buckets up to a month, daily buckets beyond, moving to a coarser
+     * granularity when the finer one no longer covers the start of the range.
+     */
+    private Granularity selectGranularity(int startTime, int endTime) {
+        int now = (int) (System.currentTimeMillis() / 1000);
+        int range = endTime - startTime;
+        if (range <= ONE_DAY && startTime >= now - paramsConfig.getNodeStakeRawRetentionDays() * ONE_DAY) {
+            return Granularity.RAW;
+        }
+        if (range <= 31 * ONE_DAY && startTime >= now - paramsConfig.getNodeStakeHourlyRetentionDays() * ONE_DAY) {
+            return Granularity.HOUR;
+        }
+        return Granularity.DAY;
+    }
+
+    private synchronized void compact(int now) {
+        int rawRetention = paramsConfig.getNodeStakeRawRetentionDays() * ONE_DAY;
+        int hourlyRetention = paramsConfig.getNodeStakeHourlyRetentionDays() * ONE_DAY;
+
+        int hourBefore = Granularity.HOUR.bucketOf(now);
+        if (hourBefore > hourRolledUpTo) {
+            int from = hourRolledUpTo == 0 ? Granularity.HOUR.bucketOf(now - rawRetention) : hourRolledUpTo;
+            int result = nodeStakeHistoryMapper.rollup(Granularity.RAW.seconds(), Granularity.HOUR.seconds(), from, hourBefore);
+            log.info("Roll up node stake samples in [{}, {}) to {} hourly buckets", from, hourBefore, result);
+            hourRolledUpTo = hourBefore;
+            result = nodeStakeHistoryMapper.deleteBefore(Granularity.RAW.seconds(), now - rawRetention);
+            log.info("Delete {} node stake samples older than {} days", result, paramsConfig.getNodeStakeRawRetentionDays());
+        }
+
+        int dayBefore = Granularity.DAY.bucketOf(now);
+        if (dayBefore > dayRolledUpTo) {
+            int from = dayRolledUpTo == 0 ? Granularity.DAY.bucketOf(now - hourlyRetention) : dayRolledUpTo;
+            int result = nodeStakeHistoryMapper.rollup(Granularity.HOUR.seconds(), Granularity.DAY.seconds(), from, dayBefore);
+            log.info("Roll up hourly node stake in [{}, {}) to {} daily buckets", from, dayBefore, result);
+            dayRolledUpTo = dayBefore;
+            result = nodeStakeHistoryMapper.deleteBefore(Granularity.HOUR.seconds(), now - hourlyRetention);
+            log.info("Delete {} hourly node stake buckets older than {} days", result, paramsConfig.getNodeStakeHourlyRetentionDays());
+        }
+    }
+
+}
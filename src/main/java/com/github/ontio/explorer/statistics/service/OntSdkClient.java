@@ -0,0 +1,94 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.OntSdk;
+import com.github.ontio.core.governance.Configuration;
+import com.github.ontio.core.governance.GovernanceView;
+import com.github.ontio.explorer.statistics.jfr.ChainRpcEvent;
+import com.github.ontio.network.exception.ConnectorException;
+import com.github.ontio.sdk.exception.SDKException;
+import com.github.ontio.smartcontract.nativevm.Governance;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+
+/**
+ * SDK client bound to a single Ontology node.
+ * <p>
+ * {@link OntSdk#getInstance()} is a process wide singleton whose REST endpoint is replaced on failover, so each
+ * client owns a private {@link OntSdk} instance instead. The endpoint never changes after construction, which
+ * makes a client safe to share between scheduler threads. Every request is emitted as a {@link ChainRpcEvent}.
+ */
+class OntSdkClient {
+
+    @Getter
+    private final String host;
+
+    private final OntSdk sdk;
+
+    private final Governance governance;
+
+    OntSdkClient(String host) {
+        this.host = host;
+        this.sdk = newSdkInstance();
+        this.sdk.setRestful(host);
+        // OntSdk#nativevm() is always bound to the singleton, so the governance contract is created directly.
+        this.governance = new Governance(sdk);
+    }
+
+    int getBlockHeight() throws ConnectorException, IOException, SDKException {
+        return call("getBlockHeight", () -> sdk.getRestful().getBlockHeight());
+    }
+
+    GovernanceView getGovernanceView() throws ConnectorException, IOException, SDKException {
+        return call("getGovernanceView", governance::getGovernanceView);
+    }
+
+    Configuration getConfiguration() throws ConnectorException, IOException, SDKException {
+        return call("getConfiguration", governance::getConfiguration);
+    }
+
+    Map getPeerPoolMap() throws ConnectorException, IOException, SDKException {
+        return call("getPeerPoolMap", governance::getPeerPoolMap);
+    }
+
+    String getPeerAttributes(String pubKey) throws ConnectorException, IOException, SDKException {
+        return call("getPeerAttributes", () -> governance.getPeerAttributes(pubKey));
+    }
+
+    private <T> T call(String method, SdkCall<T> call) throws ConnectorException, IOException, SDKException {
+        ChainRpcEvent event = new ChainRpcEvent(host, method);
+        event.begin();
+        try {
+            T result = call.execute();
+            event.success = true;
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static OntSdk newSdkInstance() {
+        try {
+            Constructor<OntSdk> constructor = OntSdk.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Creating ontology sdk instance failed", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return host;
+    }
+
+    @FunctionalInterface
+    private interface SdkCall<T> {
+
+        T execute() throws ConnectorException, IOException, SDKException;
+
+    }
+
+}
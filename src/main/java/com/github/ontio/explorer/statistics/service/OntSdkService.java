@@ -1,29 +1,34 @@
 package com.github.ontio.explorer.statistics.service;
 
-import com.github.ontio.OntSdk;
 import com.github.ontio.core.governance.Configuration;
 import com.github.ontio.core.governance.GovernanceView;
 import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.common.SingleFlight;
 import com.github.ontio.network.exception.ConnectorException;
 import com.github.ontio.sdk.exception.SDKException;
-import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
-@Data
 @Slf4j
 @Service
 @NoArgsConstructor
 public class OntSdkService {
 
-    private OntSdk sdk;
+    private static final String LATEST = "latest";
 
-    private int nodeCount;
+    private final SingleFlight<String, Integer> blockHeightCalls = new SingleFlight<>();
+
+    private final SingleFlight<String, GovernanceView> governanceViewCalls = new SingleFlight<>();
+
+    private List<OntSdkClient> clients;
 
     private AtomicInteger currentNodeIndex;
 
@@ -32,65 +37,117 @@ public class OntSdkService {
     @Autowired
     public OntSdkService(ParamsConfig paramsConfig) {
         this.paramsConfig = paramsConfig;
-        this.nodeCount = paramsConfig.getHosts().size();
         this.currentNodeIndex = new AtomicInteger(0);
-        this.sdk = OntSdk.getInstance();
-        try {
-            sdk.getRestful();
-        } catch (SDKException e) {
-            sdk.setRestful(paramsConfig.getHosts().get(this.currentNodeIndex.get()));
+        this.clients = new ArrayList<>();
+        for (String host : paramsConfig.getHosts()) {
+            clients.add(new OntSdkClient(host));
         }
     }
 
+    /**
+     * Concurrent callers share one in-flight request, the same applies to {@link #getBlockHeight()}.
+     */
     GovernanceView getGovernanceView() {
+        return governanceViewCalls.execute(LATEST, this::fetchGovernanceView);
+    }
+
+    private GovernanceView fetchGovernanceView() {
+        int index = currentNodeIndex.get();
         try {
-            return sdk.nativevm().governance().getGovernanceView();
+            return getClient(index).getGovernanceView();
         } catch (ConnectorException | IOException | SDKException e) {
             log.warn("Getting governance view failed: {}", e.getMessage());
-            switchSyncNode();
+            switchSyncNode(index);
             log.info("Getting governance view again");
-            return getGovernanceView();
+            return fetchGovernanceView();
         }
     }
 
     int getStakingChangeCount() {
+        int index = currentNodeIndex.get();
         try {
-            Configuration configuration = sdk.nativevm().governance().getConfiguration();
+            Configuration configuration = getClient(index).getConfiguration();
             if (configuration == null) {
                 log.warn("Getting native vm configuration failed: configuration is null");
-                switchSyncNode();
+                switchSyncNode(index);
                 log.info("Try to get native vm configuration again");
                 return getStakingChangeCount();
             }
             return configuration.MaxBlockChangeView;
         } catch (ConnectorException | IOException | SDKException e) {
             log.warn("Getting native vm configuration failed: {}", e.getMessage());
-            switchSyncNode();
+            switchSyncNode(index);
             log.info("Getting native vm configuration again");
             return getStakingChangeCount();
         }
     }
 
     int getBlockHeight() {
+        return blockHeightCalls.execute(LATEST, this::fetchBlockHeight);
+    }
+
+    private int fetchBlockHeight() {
+        int index = currentNodeIndex.get();
         try {
-            return sdk.getRestful().getBlockHeight();
+            return getClient(index).getBlockHeight();
         } catch (ConnectorException | IOException | SDKException e) {
             log.warn("Getting block height failed: {}", e.getMessage());
-            switchSyncNode();
+            switchSyncNode(index);
             log.info("Getting block height again");
-            return getBlockHeight();
+            return fetchBlockHeight();
         }
     }
 
-    void switchSyncNode() {
-        if (currentNodeIndex.get() >= nodeCount) {
-            currentNodeIndex.set(0);
-        }
-        sdk.setRestful(paramsConfig.getHosts().get(currentNodeIndex.getAndAdd(1)));
+    Map getPeerPoolMap() {
+        int index = currentNodeIndex.get();
         try {
-            log.warn("Using node: {}", sdk.getRestful().toString());
-        } catch (SDKException e) {
-            log.warn("Getting REST URL failed: {}", e.getMessage());
+            return getClient(index).getPeerPoolMap();
+        } catch (Exception e) {
+            log.error("Get peer pool map failed: {}", e.getMessage());
+            switchSyncNode(index);
+            return getPeerPoolMap();
+        }
+    }
+
+    /**
+     * Asks each node at most once, starting with the current one.
+     */
+    String getPeerAttributes(String pubKey) {
+        for (int attempt = 0; attempt < clients.size(); attempt++) {
+            int index = currentNodeIndex.get();
+            try {
+                String attributes = getClient(index).getPeerAttributes(pubKey);
+                if (attributes != null) {
+                    return attributes;
+                }
+                log.warn("Getting {}'s peer attributes failed: attributes is null", pubKey);
+            } catch (Exception e) {
+                log.error("Getting {}'s peer attributes failed: {}", pubKey, e.getMessage());
+            }
+            switchSyncNode(index);
+        }
+        throw new IllegalStateException("Getting " + pubKey + "'s peer attributes failed on every node");
+    }
+
+    /**
+     * Moves away from the current node, for callers that found its response unusable.
+     */
+    void switchSyncNode() {
+        switchSyncNode(currentNodeIndex.get());
+    }
+
+    private OntSdkClient getClient(int index) {
+        return clients.get(index % clients.size());
+    }
+
+    /**
+     * Moves to the next node only if no other caller has already switched away from the failed one, so that a
+     * burst of concurrent failures on one node does not skip over the healthy nodes behind it.
+     */
+    private void switchSyncNode(int failedIndex) {
+        int nextIndex = (failedIndex + 1) % clients.size();
+        if (currentNodeIndex.compareAndSet(failedIndex, nextIndex)) {
+            log.warn("Using node: {}", getClient(nextIndex));
         }
     }
 
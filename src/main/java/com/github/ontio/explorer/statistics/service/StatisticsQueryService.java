@@ -0,0 +1,246 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.StatisticsUpdatedEvent;
+import com.github.ontio.explorer.statistics.mapper.ContractDailySummaryMapper;
+import com.github.ontio.explorer.statistics.mapper.ContractMapper;
+import com.github.ontio.explorer.statistics.mapper.DailySummaryMapper;
+import com.github.ontio.explorer.statistics.model.Contract;
+import com.github.ontio.explorer.statistics.model.ContractDailySummary;
+import com.github.ontio.explorer.statistics.model.DailySummary;
+import com.github.ontio.explorer.statistics.model.DailySummaryTotal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * Serves the daily and contract statistics from memory.
+ * <p>
+ * The cache has three tiers: every daily summary, the totals of every contract, and the daily series of the most
+ * recently read contracts, bounded by {@code statistics-contract-cache-size}. Daily rows are only ever appended, so
+ * when {@link StatisticsService} finishes a run the new days are loaded and appended to the cached series, and the
+ * contract totals are reloaded. Only a series that is not cached is read from the database.
+ */
+@Slf4j
+@Service
+public class StatisticsQueryService {
+
+    private final DailySummaryMapper dailySummaryMapper;
+
+    private final ContractDailySummaryMapper contractDailySummaryMapper;
+
+    private final ContractMapper contractMapper;
+
+    private volatile NavigableMap<Integer, DailySummary> dailySummaries = Collections.emptyNavigableMap();
+
+    private volatile Map<String, Contract> contractTotals = Collections.emptyMap();
+
+    /**
+     * Daily series by contract hash in access order, each series is replaced rather than modified.
+     */
+    private final Map<String, List<ContractDailySummary>> contractSeries;
+
+    /**
+     * Held while a series is loaded into the cache and while new days are appended, so a series loaded before a day
+     * was written cannot be put after that day was appended.
+     */
+    private final Object seriesLoadLock = new Object();
+
+    private volatile boolean loaded;
+
+    @Autowired
+    public StatisticsQueryService(ParamsConfig paramsConfig, DailySummaryMapper dailySummaryMapper,
+                                  ContractDailySummaryMapper contractDailySummaryMapper, ContractMapper contractMapper) {
+        this.dailySummaryMapper = dailySummaryMapper;
+        this.contractDailySummaryMapper = contractDailySummaryMapper;
+        this.contractMapper = contractMapper;
+        int maxSize = paramsConfig.getStatisticsContractCacheSize();
+        this.contractSeries = new LinkedHashMap<String, List<ContractDailySummary>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<ContractDailySummary>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            refreshDailySummaries();
+            refreshContractTotals();
+            loaded = true;
+        } catch (Exception e) {
+            log.warn("Loading statistics cache failed: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onStatisticsUpdated(StatisticsUpdatedEvent event) {
+        try {
+            if (event.getScope() == StatisticsUpdatedEvent.Scope.DAILY_SUMMARY) {
+                refreshDailySummaries();
+            } else {
+                refreshContractTotals();
+            }
+        } catch (Exception e) {
+            log.warn("Refreshing {} statistics cache failed: {}", event.getScope(), e.getMessage());
+        }
+    }
+
+    public List<DailySummary> getDailySummaries(int startTime, int endTime) {
+        ensureLoaded();
+        return new ArrayList<>(dailySummaries.subMap(startTime, true, endTime, true).values());
+    }
+
+    /**
+     * The difference between the running totals at the end of the range and on the day before it.
+     */
+    public DailySummaryTotal getDailySummaryTotal(int startTime, int endTime) {
+        ensureLoaded();
+        NavigableMap<Integer, DailySummary> summaries = dailySummaries;
+        DailySummaryTotal total = new DailySummaryTotal(startTime, endTime, 0, 0, 0L);
+        Map.Entry<Integer, DailySummary> last = summaries.floorEntry(endTime);
+        if (last == null || last.getKey() < startTime) {
+            return total;
+        }
+        DailySummary end = last.getValue();
+        total.setNewAddressCount(end.getTotalAddressCount());
+        total.setNewOntidCount(end.getTotalOntidCount());
+        total.setTxCount(end.getTotalTxCount());
+        Map.Entry<Integer, DailySummary> before = summaries.lowerEntry(startTime);
+        if (before != null) {
+            DailySummary start = before.getValue();
+            total.setNewAddressCount(total.getNewAddressCount() - start.getTotalAddressCount());
+            total.setNewOntidCount(total.getNewOntidCount() - start.getTotalOntidCount());
+            total.setTxCount(total.getTxCount() - start.getTotalTxCount());
+        }
+        return total;
+    }
+
+    /**
+     * Time of the last cached daily summary, null if there is none.
+     */
+    public Integer getLastDailySummaryTime() {
+        ensureLoaded();
+        NavigableMap<Integer, DailySummary> summaries = dailySummaries;
+        return summaries.isEmpty() ? null : summaries.lastKey();
+    }
+
+    public List<Contract> getContractTotals() {
+        ensureLoaded();
+        return new ArrayList<>(contractTotals.values());
+    }
+
+    public Contract getContractTotal(String contractHash) {
+        ensureLoaded();
+        return contractTotals.get(contractHash);
+    }
+
+    public List<ContractDailySummary> getContractDailySummaries(String contractHash, int startTime, int endTime) {
+        List<ContractDailySummary> series;
+        synchronized (contractSeries) {
+            series = contractSeries.get(contractHash);
+        }
+        if (series == null) {
+            series = loadContractSeries(contractHash);
+        }
+        List<ContractDailySummary> result = new ArrayList<>();
+        for (ContractDailySummary summary : series) {
+            if (summary.getTime() >= startTime && summary.getTime() <= endTime) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    private List<ContractDailySummary> loadContractSeries(String contractHash) {
+        synchronized (seriesLoadLock) {
+            synchronized (contractSeries) {
+                List<ContractDailySummary> cached = contractSeries.get(contractHash);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            List<ContractDailySummary> series = contractDailySummaryMapper.selectByContractHash(contractHash);
+            synchronized (contractSeries) {
+                contractSeries.put(contractHash, series);
+            }
+            return series;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Appends the days after the last cached one. The contract rows of a day are written before its daily summary,
+     * so the same watermark covers the cached contract series.
+     */
+    private synchronized void refreshDailySummaries() {
+        NavigableMap<Integer, DailySummary> current = dailySummaries;
+        int watermark = current.isEmpty() ? 0 : current.lastKey();
+        List<DailySummary> added = dailySummaryMapper.selectAfterTime(watermark);
+        if (!added.isEmpty()) {
+            NavigableMap<Integer, DailySummary> updated = new TreeMap<>(current);
+            for (DailySummary summary : added) {
+                updated.put(summary.getTime(), summary);
+            }
+            dailySummaries = Collections.unmodifiableNavigableMap(updated);
+            log.info("Appended {} daily summaries to statistics cache", added.size());
+        }
+        appendContractSeries(watermark);
+    }
+
+    private void appendContractSeries(int watermark) {
+        synchronized (seriesLoadLock) {
+            synchronized (contractSeries) {
+                if (contractSeries.isEmpty()) {
+                    return;
+                }
+            }
+            Map<String, List<ContractDailySummary>> added = new HashMap<>();
+            for (ContractDailySummary summary : contractDailySummaryMapper.selectAfterTime(watermark)) {
+                added.computeIfAbsent(summary.getContractHash(), key -> new ArrayList<>()).add(summary);
+            }
+            synchronized (contractSeries) {
+                for (Map.Entry<String, List<ContractDailySummary>> entry : contractSeries.entrySet()) {
+                    List<ContractDailySummary> rows = added.get(entry.getKey());
+                    if (rows != null) {
+                        entry.setValue(append(entry.getValue(), rows));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips the rows a series loaded after the watermark already contains.
+     */
+    private static List<ContractDailySummary> append(List<ContractDailySummary> series, List<ContractDailySummary> rows) {
+        int lastTime = series.isEmpty() ? Integer.MIN_VALUE : series.get(series.size() - 1).getTime();
+        List<ContractDailySummary> appended = new ArrayList<>(series);
+        for (ContractDailySummary row : rows) {
+            if (row.getTime() > lastTime) {
+                appended.add(row);
+            }
+        }
+        return appended;
+    }
+
+    private synchronized void refreshContractTotals() {
+        Map<String, Contract> totals = new LinkedHashMap<>();
+        for (Contract contract : contractMapper.selectContractTotals()) {
+            totals.put(contract.getContractHash(), contract);
+        }
+        contractTotals = Collections.unmodifiableMap(totals);
+        log.info("Loaded totals of {} contracts into statistics cache", totals.size());
+    }
+
+}
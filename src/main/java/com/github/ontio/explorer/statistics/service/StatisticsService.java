@@ -18,14 +18,19 @@ package com.github.ontio.explorer.statistics.service;
 import com.alibaba.fastjson.JSON;
 import com.github.ontio.explorer.statistics.common.ParamsConfig;
 import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.IoExecutor;
+import com.github.ontio.explorer.statistics.common.PipelineMetrics;
+import com.github.ontio.explorer.statistics.event.StatisticsUpdatedEvent;
+import com.github.ontio.explorer.statistics.jfr.ContractEvent;
 import com.github.ontio.explorer.statistics.mapper.*;
-import com.github.ontio.explorer.statistics.model.AddressDailySummary;
 import com.github.ontio.explorer.statistics.model.Contract;
 import com.github.ontio.explorer.statistics.model.ContractDailySummary;
 import com.github.ontio.explorer.statistics.model.DailySummary;
+import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -45,26 +50,32 @@ public class StatisticsService {
     private TxDetailDailyMapper txDetailDailyMapper;
     private DailySummaryMapper dailySummaryMapper;
     private OntidTxDetailMapper ontidTxDetailMapper;
-    private AddressDailySummaryMapper addrDailySummaryMapper;
     private ContractDailySummaryMapper contractDailySummaryMapper;
+    private AddressBitmapService addressBitmapService;
     private ParamsConfig paramsConfig;
-
+    private PipelineMetrics pipelineMetrics;
+    private IoExecutor ioExecutor;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public StatisticsService(BlockMapper blockMapper, TxDetailTmpMapper txDetailTmpMapper,
                              ContractMapper contractMapper, TxDetailDailyMapper txDetailDailyMapper,
                              DailySummaryMapper dailySummaryMapper, OntidTxDetailMapper ontidTxDetailMapper,
-                             AddressDailySummaryMapper addrDailySummaryMapper, ContractDailySummaryMapper contractDailySummaryMapper,
-                             ParamsConfig paramsConfig) {
+                             ContractDailySummaryMapper contractDailySummaryMapper, AddressBitmapService addressBitmapService,
+                             ParamsConfig paramsConfig, PipelineMetrics pipelineMetrics, IoExecutor ioExecutor,
+                             ApplicationEventPublisher eventPublisher) {
         this.blockMapper = blockMapper;
         this.txDetailTmpMapper = txDetailTmpMapper;
         this.contractMapper = contractMapper;
         this.txDetailDailyMapper = txDetailDailyMapper;
         this.dailySummaryMapper = dailySummaryMapper;
         this.ontidTxDetailMapper = ontidTxDetailMapper;
-        this.addrDailySummaryMapper = addrDailySummaryMapper;
         this.contractDailySummaryMapper = contractDailySummaryMapper;
+        this.addressBitmapService = addressBitmapService;
         this.paramsConfig = paramsConfig;
+        this.pipelineMetrics = pipelineMetrics;
+        this.ioExecutor = ioExecutor;
+        this.eventPublisher = eventPublisher;
     }
 
     public void updateDailySummary() {
@@ -74,15 +85,17 @@ public class StatisticsService {
             int currBlockTime = getCurrBlockTime();
             log.info("Current block time: {}", currBlockTime);
             while (currBlockTime > dailySumTaskBeginTime + Constants.ONE_DAY_IN_SEC) {
-                cleanTxDetailTmpTbl();
-                updateTxDetailTmp(dailySumTaskBeginTime);
-                Map<String, Integer> addrCountMap = updateAddrSumTbl(dailySumTaskBeginTime);
-                updateDailySumTbl(dailySumTaskBeginTime, addrCountMap);
+                int beginTime = dailySumTaskBeginTime;
+                pipelineMetrics.markRange(beginTime, beginTime + Constants.ONE_DAY_IN_SEC);
+                pipelineMetrics.run("cleanTxDetailTmpTbl", this::cleanTxDetailTmpTbl);
+                pipelineMetrics.run("updateTxDetailTmp", () -> updateTxDetailTmp(beginTime));
+                Map<String, Integer> addrCountMap = pipelineMetrics.call("updateAddrSumTbl", () -> updateAddrSumTbl(beginTime));
+                pipelineMetrics.run("updateDailySumTbl", () -> updateDailySumTbl(beginTime, addrCountMap));
                 dailySumTaskBeginTime += Constants.ONE_DAY_IN_SEC;
             }
             log.info("Current update daily summary task end time: {}", dailySummaryMapper.selectMaxTime());
-        } catch (Exception e) {
-            log.error("An error occur: ", e);
+        } finally {
+            eventPublisher.publishEvent(new StatisticsUpdatedEvent(StatisticsUpdatedEvent.Scope.DAILY_SUMMARY));
         }
     }
 
@@ -91,10 +104,10 @@ public class StatisticsService {
             int currDailySumEndTime = getDailySumTblMaxTime();
             log.info("Current max time in daily summary table: {}", currDailySumEndTime);
             int taskEndTime = currDailySumEndTime + Constants.ONE_DAY_IN_SEC;
-            cleanTxDetailDailyTbl(taskEndTime);
-            updateApprovedContract();
-        } catch (Exception e) {
-            log.error("An error occur: ", e);
+            pipelineMetrics.run("cleanTxDetailDailyTbl", () -> cleanTxDetailDailyTbl(taskEndTime));
+            pipelineMetrics.run("updateApprovedContract", this::updateApprovedContract);
+        } finally {
+            eventPublisher.publishEvent(new StatisticsUpdatedEvent(StatisticsUpdatedEvent.Scope.CONTRACT));
         }
     }
 
@@ -102,18 +115,21 @@ public class StatisticsService {
         if (txDetailDailyMapper.selectiveByEndTime(endTime) != 0) {
             int result = txDetailDailyMapper.deleteByEndTime(endTime);
             log.info("Delete {} data in tx detail daily table before: {}", result, endTime);
+            pipelineMetrics.addRows("cleanTxDetailDailyTbl", result);
         }
     }
 
     private void cleanTxDetailTmpTbl() {
         int result = txDetailTmpMapper.deleteAll();
         log.info("Delete tx detail in tmp table: {}", result);
+        pipelineMetrics.addRows("cleanTxDetailTmpTbl", result);
     }
 
     private void updateTxDetailTmp(int beginTime) {
         int endTime = beginTime + Constants.ONE_DAY_IN_SEC;
         int result = txDetailTmpMapper.InsertSelectiveFromDetailTable(beginTime, endTime);
         log.info("Insert data from tx detail table: {}", result);
+        pipelineMetrics.addRows("updateTxDetailTmp", result);
     }
 
     private int getCurrBlockTime() {
@@ -145,19 +161,41 @@ public class StatisticsService {
         int dailyBlockSum = getDailyBlockSum(dailySumTaskBeginTime);
         int dailyOntIdSum = getDailyOntIdSum(dailySumTaskBeginTime);
         int dailyActiveOntIdSum = getDailyActiveOntIdSum(dailySumTaskBeginTime);
+        int dailyTxSum = getDailyTxSum();
+        int dailyNewAddrCount = addrCountMap.get("dailyNewAddrCount");
 
         DailySummary dailySummary = DailySummary.builder()
                 .time(dailySumTaskBeginTime)
                 .blockCount(dailyBlockSum)
-                .txCount(getDailyTxSum())
+                .txCount(dailyTxSum)
                 .activeOntidCount(dailyActiveOntIdSum)
                 .newOntidCount(dailyOntIdSum)
                 .ontSum(getDailyOntSum())
                 .ongSum(getDailyOngSum())
                 .activeAddressCount(addrCountMap.get("dailyActiveAddrCount"))
-                .newAddressCount(addrCountMap.get("dailyNewAddrCount"))
+                .newAddressCount(dailyNewAddrCount)
                 .build();
+        addRunningTotals(dailySummary);
         dailySummaryMapper.insert(dailySummary);
+        pipelineMetrics.addRows("updateDailySumTbl", 1);
+    }
+
+    /**
+     * 累计值 = 之前最近一天的累计值 + 当天的新增值，中间缺少的天不会使累计值归零
+     */
+    void addRunningTotals(DailySummary dailySummary) {
+        DailySummary previous = dailySummaryMapper.selectLatestBefore(dailySummary.getTime());
+        int totalAddressCount = dailySummary.getNewAddressCount();
+        int totalOntIdCount = dailySummary.getNewOntidCount();
+        long totalTxCount = dailySummary.getTxCount();
+        if (previous != null) {
+            totalAddressCount += previous.getTotalAddressCount();
+            totalOntIdCount += previous.getTotalOntidCount();
+            totalTxCount += previous.getTotalTxCount();
+        }
+        dailySummary.setTotalAddressCount(totalAddressCount);
+        dailySummary.setTotalOntidCount(totalOntIdCount);
+        dailySummary.setTotalTxCount(totalTxCount);
     }
 
     private BigDecimal getDailyOntSum() {
@@ -228,10 +266,6 @@ public class StatisticsService {
         return txDetailDailyMapper.selectContractAddr(contractHash);
     }
 
-    private List<String> getAddrListFromAddrDailySumTbl(String contractHash) {
-        return addrDailySummaryMapper.selectDistinctAddressByContract(contractHash);
-    }
-
     private int getDailyContractNewAddrCount(String contractHash, int dappStoreFlag) {
         List<String> contractAddrList = new ArrayList<>();
         //dapp类型合约,根据from_address+payer计算地址
@@ -241,9 +275,7 @@ public class StatisticsService {
             //其他类型合约,根据from_address+to_address计算地址
             contractAddrList = getAddrListFromTxDetailTbl(contractHash);
         }
-        List<String> fullAddrList = getAddrListFromAddrDailySumTbl(contractHash);
-        contractAddrList.removeAll(fullAddrList);
-        return contractAddrList.size();
+        return addressBitmapService.countNew(contractHash, contractAddrList);
     }
 
     private String getOepTokenSum(String contractHash, String type) {
@@ -270,22 +302,36 @@ public class StatisticsService {
         return txDetailDailyMapper.selectTxCount(contractHash);
     }
 
+    /**
+     * The aggregates of the contracts are queried concurrently and written one by one.
+     */
     private void updateApprovedContract() {
         List<Contract> contractList = contractMapper.selectAllApprovedContract();
+        ioExecutor.map(IoExecutor.Resource.DATABASE, contractList, this::aggregateApprovedContract);
         for (Contract contract : contractList) {
-            String type = contract.getType();
-            String contractHash = contract.getContractHash();
-            int dappStoreFlag = contract.getDappstoreFlag();
-            log.info("Staring handle {} contract {} named {} which dApp store flag is {}", type, contractHash, contract.getName(), dappStoreFlag);
-
-            ContractDailySummary contractDailySummary = getContractDailySummary(contractHash);
-            contract.setTxCount(contractDailySummary.getTxCount() + getDailyTxCount(contractHash));
-            contract.setOntSum(contractDailySummary.getOntSum().add(getDailyOntSum(contractHash)));
-            contract.setOngSum(contractDailySummary.getOngSum().add(getDailyOngSum(contractHash)));
-            contract.setTokenSum(getOepTokenSum(contractHash, type));
-            contract.setAddressCount(contractDailySummary.getNewAddressCount() + getDailyContractNewAddrCount(contractHash, dappStoreFlag));
             contractMapper.updateByPrimaryKeySelective(contract);
         }
+        pipelineMetrics.addRows("updateApprovedContract", contractList.size());
+    }
+
+    private Contract aggregateApprovedContract(Contract contract) {
+        String type = contract.getType();
+        String contractHash = contract.getContractHash();
+        int dappStoreFlag = contract.getDappstoreFlag();
+        log.info("Staring handle {} contract {} named {} which dApp store flag is {}", type, contractHash, contract.getName(), dappStoreFlag);
+        ContractEvent event = new ContractEvent("updateApprovedContract", contractHash, 0);
+        event.begin();
+
+        ContractDailySummary contractDailySummary = getContractDailySummary(contractHash);
+        contract.setTxCount(contractDailySummary.getTxCount() + getDailyTxCount(contractHash));
+        contract.setOntSum(contractDailySummary.getOntSum().add(getDailyOntSum(contractHash)));
+        contract.setOngSum(contractDailySummary.getOngSum().add(getDailyOngSum(contractHash)));
+        contract.setTokenSum(getOepTokenSum(contractHash, type));
+        contract.setAddressCount(contractDailySummary.getNewAddressCount() + getDailyContractNewAddrCount(contractHash, dappStoreFlag));
+        event.txCount = contract.getTxCount();
+        event.addressCount = contract.getAddressCount();
+        event.commit();
+        return contract;
     }
 
     private static Boolean isEmptyOrNull(Object... params) {
@@ -300,7 +346,7 @@ public class StatisticsService {
         return true;
     }
 
-    private List<AddressDailySummary> updateDailyContractInfoAndContractNewAddress(Integer beginTime) {
+    private void updateDailyContractInfoAndContractNewAddress(Integer beginTime) {
         List<Contract> contractList;
         //测试网只更新审核后的合约
         if (paramsConfig.getIsTestNet()) {
@@ -309,54 +355,57 @@ public class StatisticsService {
             contractList = contractMapper.selectAll();
         }
         if (contractList.isEmpty()) {
-            return new ArrayList<>();
+            return;
         }
+        //分批并行查询每个合约当天的统计数据，再依次将每个合约的新地址记入地址位图，只有一批合约的活跃地址留在内存中
+        int batchSize = paramsConfig.getContractDayBatchSize();
         List<ContractDailySummary> contractSummaryList = new ArrayList<>();
-        List<AddressDailySummary> contractAddrSummaryList = new ArrayList<>();
-        //记录每个合约当天的统计数据，并将每个合约的新地址插入地址汇总表
-        for (Contract contract : contractList) {
-            String contractHash = contract.getContractHash();
-            BigDecimal dailyOntAmount = getOneDayOntSum(contractHash);
-            BigDecimal dailyOngAmount = getOneDayOngSum(contractHash);
-            int dailyTxCount = getDailyTxSum(contractHash);
-
-            List<String> dailyActiveAddress;
-            //dapp类型合约,根据from_address+payer计算地址
-            if (contract.getDappstoreFlag() == 1) {
-                dailyActiveAddress = txDetailTmpMapper.selectContractAddr4Dapp(contractHash);
-            } else {
-                //其他类型合约,根据from_address+to_address计算地址
-                dailyActiveAddress = txDetailTmpMapper.selectContractAddr(contractHash);
-            }
-            int dailyActiveAddrCount = dailyActiveAddress.size();
-
-            List<String> allAddrList = addrDailySummaryMapper.selectDistinctAddressByContract(contractHash);
-            dailyActiveAddress.removeAll(allAddrList);
-            int dailyNewAddrCount = dailyActiveAddress.size();
-
-            ContractDailySummary contractSummary = ContractDailySummary.builder()
-                    .time(beginTime)
-                    .dappName(contract.getDappName())
-                    .contractHash(contractHash)
-                    .ontSum(dailyOntAmount)
-                    .ongSum(dailyOngAmount)
-                    .txCount(dailyTxCount)
-                    .activeAddressCount(dailyActiveAddrCount)
-                    .newAddressCount(dailyNewAddrCount)
-                    .build();
-            contractSummaryList.add(contractSummary);
-            for (String address : dailyActiveAddress) {
-                AddressDailySummary addressSummary = AddressDailySummary.builder()
-                        .time(beginTime)
-                        .contractHash(contractHash)
-                        .address(address)
-                        .build();
-                contractAddrSummaryList.add(addressSummary);
+        for (int i = 0; i < contractList.size(); i += batchSize) {
+            List<Contract> batch = contractList.subList(i, Math.min(i + batchSize, contractList.size()));
+            List<ContractDay> contractDays = ioExecutor.map(IoExecutor.Resource.DATABASE, batch,
+                    contract -> getContractDay(contract, beginTime));
+            for (ContractDay contractDay : contractDays) {
+                ContractDailySummary contractSummary = contractDay.summary;
+                int dailyNewAddrCount = addressBitmapService.recordDay(beginTime, contractSummary.getContractHash(), contractDay.activeAddresses);
+                contractSummary.setNewAddressCount(dailyNewAddrCount);
+                contractSummaryList.add(contractSummary);
             }
         }
         int insertResult = contractDailySummaryMapper.batchInsertSelective(contractSummaryList);
         log.info("Batch insert contract in contract daily summary table: {}", insertResult);
-        return contractAddrSummaryList;
+    }
+
+    private ContractDay getContractDay(Contract contract, int beginTime) {
+        String contractHash = contract.getContractHash();
+        ContractEvent event = new ContractEvent("updateDailyContractInfo", contractHash, beginTime);
+        event.begin();
+        BigDecimal dailyOntAmount = getOneDayOntSum(contractHash);
+        BigDecimal dailyOngAmount = getOneDayOngSum(contractHash);
+        int dailyTxCount = getDailyTxSum(contractHash);
+
+        List<String> dailyActiveAddress;
+        //dapp类型合约,根据from_address+payer计算地址
+        if (contract.getDappstoreFlag() == 1) {
+            dailyActiveAddress = txDetailTmpMapper.selectContractAddr4Dapp(contractHash);
+        } else {
+            //其他类型合约,根据from_address+to_address计算地址
+            dailyActiveAddress = txDetailTmpMapper.selectContractAddr(contractHash);
+        }
+        int dailyActiveAddrCount = dailyActiveAddress.size();
+
+        ContractDailySummary contractSummary = ContractDailySummary.builder()
+                .time(beginTime)
+                .dappName(contract.getDappName())
+                .contractHash(contractHash)
+                .ontSum(dailyOntAmount)
+                .ongSum(dailyOngAmount)
+                .txCount(dailyTxCount)
+                .activeAddressCount(dailyActiveAddrCount)
+                .build();
+        event.txCount = dailyTxCount;
+        event.addressCount = dailyActiveAddrCount;
+        event.commit();
+        return new ContractDay(contractSummary, dailyActiveAddress);
     }
 
     private Map<String, Integer> updateAddrSumTbl(Integer dailySumTaskBeginTime) {
@@ -365,30 +414,26 @@ public class StatisticsService {
 
         List<String> dailyAddrRecords = txDetailTmpMapper.selectAddressInOneDay();
         map.put("dailyActiveAddrCount", dailyAddrRecords.size());
+        pipelineMetrics.addRows("updateAddrSumTbl", dailyAddrRecords.size());
 
-        List<String> addressRecords = addrDailySummaryMapper.selectDistinctAddressByContract(Constants.ADDR_DAILY_SUMMARY_NATIVETYPE);
-        dailyAddrRecords.removeAll(addressRecords);
+        int dailyNewAddrCount = addressBitmapService.recordDay(dailySumTaskBeginTime, Constants.ADDR_DAILY_SUMMARY_NATIVETYPE, dailyAddrRecords);
+        map.put("dailyNewAddrCount", dailyNewAddrCount);
+        log.info("Record {} new addresses in address bitmap", dailyNewAddrCount);
 
-        map.put("dailyNewAddrCount", dailyAddrRecords.size());
+        updateDailyContractInfoAndContractNewAddress(dailySumTaskBeginTime);
 
-        List<AddressDailySummary> contractAddrSumList = updateDailyContractInfoAndContractNewAddress(dailySumTaskBeginTime);
-        List<AddressDailySummary> addrSummaryList = new ArrayList<>();
-        for (String address : dailyAddrRecords) {
-            AddressDailySummary addrDailySummary = AddressDailySummary.builder()
-                    .time(dailySumTaskBeginTime)
-                    .contractHash(Constants.ADDR_DAILY_SUMMARY_NATIVETYPE)
-                    .address(address)
-                    .build();
-            addrSummaryList.add(addrDailySummary);
-        }
+        return map;
+    }
 
-        addrSummaryList.addAll(contractAddrSumList);
-        if (!addrSummaryList.isEmpty()) {
-            int insertResult = addrDailySummaryMapper.batchInsertSelective(addrSummaryList);
-            log.info("Batch insert address in address daily summary table: {}", insertResult);
-        }
+    /**
+     * Statistics of one contract for one day, before its new addresses are counted.
+     */
+    @AllArgsConstructor
+    private static class ContractDay {
+
+        private final ContractDailySummary summary;
+
+        private final List<String> activeAddresses;
 
-        return map;
     }
 }
-
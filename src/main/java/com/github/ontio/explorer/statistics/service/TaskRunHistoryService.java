@@ -0,0 +1,93 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import com.github.ontio.explorer.statistics.event.TaskRunEvent;
+import com.github.ontio.explorer.statistics.mapper.TaskRunHistoryMapper;
+import com.github.ontio.explorer.statistics.model.TaskRunHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores every task run with its stage timings in {@code tbl_task_run_history} and deletes runs older than the
+ * retention, at most once an hour.
+ * <p>
+ * Runs are written on a thread of their own so a slow database never delays the scheduler threads publishing them.
+ * At most {@link #QUEUE_SIZE} runs wait to be written, further runs are dropped from the history.
+ */
+@Slf4j
+@Service
+public class TaskRunHistoryService {
+
+    private static final long COMPACT_INTERVAL = 3600 * 1000L;
+
+    private static final int QUEUE_SIZE = 1000;
+
+    private final ParamsConfig paramsConfig;
+
+    private final TaskRunHistoryMapper taskRunHistoryMapper;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_SIZE), runnable -> {
+        Thread thread = new Thread(runnable, "task-run-history");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long lastCompactTime;
+
+    @Autowired
+    public TaskRunHistoryService(ParamsConfig paramsConfig, TaskRunHistoryMapper taskRunHistoryMapper) {
+        this.paramsConfig = paramsConfig;
+        this.taskRunHistoryMapper = taskRunHistoryMapper;
+    }
+
+    @EventListener
+    public void onTaskRun(TaskRunEvent event) {
+        TaskRunHistory run = event.getRun();
+        try {
+            executor.execute(() -> record(run));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropping run of task {}, {} runs are waiting to be recorded", run.getTask(), executor.getQueue().size());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    public List<TaskRunHistory> getRuns(String task, long startTime, long endTime, int limit) {
+        return taskRunHistoryMapper.selectRuns(task, startTime, endTime, limit);
+    }
+
+    private void record(TaskRunHistory run) {
+        try {
+            taskRunHistoryMapper.insert(run);
+            log.info("Task {} {} in {} ms with {} rows", run.getTask(), run.getStatus(), run.getDuration(), run.getRowCount());
+            compact(run.getEndTime());
+        } catch (Exception e) {
+            log.warn("Recording run of task {} failed: {}", run.getTask(), e.getMessage());
+        }
+    }
+
+    private void compact(long now) {
+        if (now - lastCompactTime < COMPACT_INTERVAL) {
+            return;
+        }
+        lastCompactTime = now;
+        long before = now - paramsConfig.getTaskRunHistoryRetentionDays() * Constants.ONE_DAY_IN_SEC * 1000L;
+        int result = taskRunHistoryMapper.deleteBefore(before);
+        log.info("Delete {} task runs before {}", result, before);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.github.ontio.explorer.statistics.task;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a {@code @Scheduled} method on the thread pool of its group, so that a slow or retrying task only delays the
+ * tasks of its own group. Methods without it run in {@link Group#BATCH}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Group value();
+
+    enum Group {
+
+        /**
+         * Long running statistics over the database.
+         */
+        BATCH,
+
+        /**
+         * Frequent polling of the Ontology nodes.
+         */
+        CHAIN,
+
+        /**
+         * Downloads from external HTTP services.
+         */
+        INGEST,
+
+        /**
+         * Round boundary snapshots, on a single thread of their own so they are taken at the boundary.
+         */
+        ROUND
+
+    }
+
+}
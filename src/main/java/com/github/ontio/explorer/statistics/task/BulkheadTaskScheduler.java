@@ -0,0 +1,122 @@
+package com.github.ontio.explorer.statistics.task;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task scheduler with one bounded thread pool per {@link Bulkhead.Group}, choosing the pool from the annotation on
+ * the scheduled method.
+ * <p>
+ * Every pool reports its size, its active threads and its queue depth: the tasks whose time has come but which
+ * still wait for a free thread.
+ */
+public class BulkheadTaskScheduler implements TaskScheduler, DisposableBean {
+
+    private static final String PREFIX = "statistics.scheduler";
+
+    private static final String GROUP = "group";
+
+    private final Map<Bulkhead.Group, ThreadPoolTaskScheduler> schedulers = new EnumMap<>(Bulkhead.Group.class);
+
+    public BulkheadTaskScheduler(Map<Bulkhead.Group, Integer> poolSizes, MeterRegistry registry) {
+        for (Bulkhead.Group group : Bulkhead.Group.values()) {
+            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+            scheduler.setPoolSize(poolSizes.getOrDefault(group, 1));
+            scheduler.setThreadNamePrefix("explorer-" + group.name().toLowerCase() + "-");
+            scheduler.initialize();
+            schedulers.put(group, scheduler);
+            String tag = group.name().toLowerCase();
+            Gauge.builder(PREFIX + ".pool.size", scheduler, ThreadPoolTaskScheduler::getPoolSize)
+                    .tag(GROUP, tag)
+                    .register(registry);
+            Gauge.builder(PREFIX + ".active", scheduler, ThreadPoolTaskScheduler::getActiveCount)
+                    .tag(GROUP, tag)
+                    .register(registry);
+            Gauge.builder(PREFIX + ".queue", scheduler, BulkheadTaskScheduler::countDue)
+                    .tag(GROUP, tag)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+        return route(task).schedule(task, trigger);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+        return route(task).schedule(task, startTime);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+        return route(task).scheduleAtFixedRate(task, startTime, period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+        return route(task).scheduleAtFixedRate(task, period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+        return route(task).scheduleWithFixedDelay(task, startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+        return route(task).scheduleWithFixedDelay(task, delay);
+    }
+
+    /**
+     * Runs a task once, as soon as a thread of the group is free.
+     */
+    public void execute(Bulkhead.Group group, Runnable task) {
+        schedulers.get(group).execute(task);
+    }
+
+    @Override
+    public void destroy() {
+        schedulers.values().forEach(ThreadPoolTaskScheduler::shutdown);
+    }
+
+    private ThreadPoolTaskScheduler route(Runnable task) {
+        Bulkhead.Group group = Bulkhead.Group.BATCH;
+        if (task instanceof ScheduledMethodRunnable) {
+            Bulkhead bulkhead = AnnotationUtils.findAnnotation(((ScheduledMethodRunnable) task).getMethod(), Bulkhead.class);
+            if (bulkhead != null) {
+                group = bulkhead.value();
+            }
+        }
+        return schedulers.get(group);
+    }
+
+    /**
+     * The queue of a scheduled pool holds every pending execution, so only those already due are counted.
+     */
+    private static long countDue(ThreadPoolTaskScheduler scheduler) {
+        ScheduledThreadPoolExecutor executor = scheduler.getScheduledThreadPoolExecutor();
+        long due = 0;
+        for (Runnable queued : executor.getQueue()) {
+            if (queued instanceof Delayed && ((Delayed) queued).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+}
@@ -15,6 +15,7 @@
 
 package com.github.ontio.explorer.statistics.task;
 
+import com.github.ontio.explorer.statistics.common.PipelineMetrics;
 import com.github.ontio.explorer.statistics.service.StatisticsService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,22 +30,35 @@ public class DailyInfoSchedule {
 
     private final StatisticsService statisticsService;
 
+    private final PipelineMetrics pipelineMetrics;
+
     @Autowired
-    public DailyInfoSchedule(StatisticsService statisticsService) {
+    public DailyInfoSchedule(StatisticsService statisticsService, PipelineMetrics pipelineMetrics) {
         this.statisticsService = statisticsService;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
+    @Bulkhead(Bulkhead.Group.BATCH)
     @Scheduled(cron = "0 5 0 * * *")
     public void updateDailyInfo() {
-        log.info("Updating daily information task begin");
-        statisticsService.updateDailySummary();
-        log.info("Updating daily information task end");
+        try {
+            log.info("Updating daily information task begin");
+            pipelineMetrics.run("updateDailyInfo", statisticsService::updateDailySummary);
+            log.info("Updating daily information task end");
+        } catch (Exception e) {
+            log.error("Updating daily information task failed: ", e);
+        }
     }
 
+    @Bulkhead(Bulkhead.Group.BATCH)
     @Scheduled(cron = "0 0/30 * * * *")
     public void updateApprovedContractInfo() {
-        log.info("Updating approved contract information task begin");
-        statisticsService.updateApprovedContractInfo();
-        log.info("Updating approved contract information task end");
+        try {
+            log.info("Updating approved contract information task begin");
+            pipelineMetrics.run("updateApprovedContractInfo", statisticsService::updateApprovedContractInfo);
+            log.info("Updating approved contract information task end");
+        } catch (Exception e) {
+            log.error("Updating approved contract information task failed: ", e);
+        }
     }
 }
@@ -15,6 +15,7 @@
 
 package com.github.ontio.explorer.statistics.task;
 
+import com.github.ontio.explorer.statistics.common.PipelineMetrics;
 import com.github.ontio.explorer.statistics.service.ConsensusNodeService;
 import com.github.ontio.explorer.statistics.service.NodeMapService;
 import lombok.extern.slf4j.Slf4j;
@@ -36,62 +37,51 @@ public class NodeSchedule {
 
     private final ConsensusNodeService consensusNodeService;
 
+    private final PipelineMetrics pipelineMetrics;
+
     @Autowired
     public NodeSchedule(NodeMapService nodeMapService,
-                        ConsensusNodeService consensusNodeService) {
+                        ConsensusNodeService consensusNodeService,
+                        PipelineMetrics pipelineMetrics) {
         this.nodeMapService = nodeMapService;
         this.consensusNodeService = consensusNodeService;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
+    @Bulkhead(Bulkhead.Group.CHAIN)
     @Scheduled(fixedDelayString = "${node-schedule-task.update-on-chain-info}")
     public void updateNodeInfo() {
         try {
             log.info("Updating consensus node information start");
-            consensusNodeService.updateConsensusNodeInfo();
+            pipelineMetrics.run("updateNodeInfo", consensusNodeService::updateConsensusNodeInfo);
             log.info("Updating consensus node information task end");
         } catch (Exception e) {
             log.warn("Updating consensus node information task failed: {}", e.getMessage());
-            log.info("Updating consensus node information task again");
-            updateNodeInfo();
         }
     }
 
+    @Bulkhead(Bulkhead.Group.INGEST)
     @Scheduled(cron = "${node-schedule-task.update-net-nodes-info}")
     public void updateNetNodesInfo() {
         try {
             log.info("Updating global network nodes info task begin");
-            nodeMapService.getNodesInfo();
+            pipelineMetrics.run("updateNetNodesInfo", nodeMapService::getNodesInfo);
             log.info("Updating global network nodes info task end");
         } catch (Exception e) {
             log.warn("Updating global network nodes info task failed: {}", e.getMessage());
-            log.info("Updating global network nodes task again");
-            updateNetNodesInfo();
         }
     }
 
+    @Bulkhead(Bulkhead.Group.CHAIN)
     @Scheduled(fixedDelayString = "${node-schedule-task.update-block-count-to-next-round}")
     public void updateBlockCountToNextRound() {
         try {
             log.info("Updating block count to next round task begin");
-            consensusNodeService.updateBlockCountToNextRound();
+            pipelineMetrics.run("updateBlockCountToNextRound", consensusNodeService::updateBlockCountToNextRound);
             log.info("Updating block count to next round task end");
         } catch (Exception e) {
             log.warn("Updating block count to next round failed: {}", e.getMessage());
         }
     }
 
-    @Scheduled(fixedDelayString = "${node-schedule-task.update-node-rank-history}")
-    public void updateNodeRankHistory() {
-        try {
-            log.info("Updating node rank history task begin");
-            consensusNodeService.updateNodeRankHistory();
-            log.info("Updating node rank history task end");
-            log.info("Updating node rank change task begin");
-            consensusNodeService.updateNodeRankChange();
-            log.info("Updating node rank change task end");
-        } catch (Exception e) {
-            log.warn("Updating node position history failed: {}", e.getMessage());
-        }
-    }
-
 }
@@ -0,0 +1,91 @@
+package com.github.ontio.explorer.statistics.task;
+
+import com.github.ontio.explorer.statistics.common.PipelineMetrics;
+import com.github.ontio.explorer.statistics.event.BlockHeightEvent;
+import com.github.ontio.explorer.statistics.service.ConsensusNodeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes the node rank history snapshot and computes the rank changes as soon as the block tracker crosses the next
+ * consensus round boundary, instead of polling for it.
+ * <p>
+ * Block height events are published on the thread polling the chain, so the database work is handed to the round
+ * pool, which the long batch jobs cannot hold up, and at most one update is pending at a time.
+ */
+@Slf4j
+@Component
+public class RoundBoundarySchedule {
+
+    private final ConsensusNodeService consensusNodeService;
+
+    private final PipelineMetrics pipelineMetrics;
+
+    private final BulkheadTaskScheduler taskScheduler;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private volatile long nextRoundBlockHeight = -1;
+
+    @Autowired
+    public RoundBoundarySchedule(ConsensusNodeService consensusNodeService, PipelineMetrics pipelineMetrics,
+                                 BulkheadTaskScheduler taskScheduler) {
+        this.consensusNodeService = consensusNodeService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener
+    public void onBlockHeight(BlockHeightEvent event) {
+        long next = nextRoundBlockHeight;
+        if (next >= 0 && event.getBlockHeight() < next) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskScheduler.execute(Bulkhead.Group.ROUND, () -> update(event));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private void update(BlockHeightEvent event) {
+        try {
+            if (nextRoundBlockHeight < 0) {
+                nextRoundBlockHeight = consensusNodeService.getNextRoundBlockHeight();
+                log.info("Next round boundary is at block height {}", nextRoundBlockHeight);
+            }
+            if (event.getBlockHeight() < nextRoundBlockHeight) {
+                return;
+            }
+            log.info("Updating node rank history task begin");
+            long roundBlockHeight = nextRoundBlockHeight;
+            boolean recorded = pipelineMetrics.call("updateNodeRankHistory", () -> {
+                pipelineMetrics.markRange(roundBlockHeight, event.getBlockHeight());
+                return consensusNodeService.updateNodeRankHistory();
+            });
+            log.info("Updating node rank history task end");
+            if (!recorded) {
+                return;
+            }
+            log.info("Updating node rank change task begin");
+            pipelineMetrics.run("updateNodeRankChange", consensusNodeService::updateNodeRankChange);
+            log.info("Updating node rank change task end");
+            nextRoundBlockHeight = consensusNodeService.getNextRoundBlockHeight();
+            log.info("Next round boundary is at block height {}", nextRoundBlockHeight);
+        } catch (Exception e) {
+            log.warn("Updating node position history failed: {}", e.getMessage());
+            nextRoundBlockHeight = -1;
+        } finally {
+            running.set(false);
+        }
+    }
+
+}
@@ -1,13 +1,15 @@
 package com.github.ontio.explorer.statistics.task;
 
+import com.github.ontio.explorer.statistics.common.ParamsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * @author zhouq
@@ -16,18 +18,30 @@ import java.util.concurrent.Executors;
  */
 @Configuration
 @EnableScheduling
-public class ScheduleConfig implements SchedulingConfigurer{
+public class ScheduleConfig implements SchedulingConfigurer {
 
+    private final ParamsConfig paramsConfig;
+
+    private final MeterRegistry meterRegistry;
+
+    public ScheduleConfig(ParamsConfig paramsConfig, MeterRegistry meterRegistry) {
+        this.paramsConfig = paramsConfig;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
-        taskRegistrar.setScheduler(taskExecutor());
+        taskRegistrar.setScheduler(taskScheduler());
     }
 
     @Bean
-    public Executor taskExecutor() {
-        return Executors.newScheduledThreadPool(16);
+    public BulkheadTaskScheduler taskScheduler() {
+        Map<Bulkhead.Group, Integer> poolSizes = new EnumMap<>(Bulkhead.Group.class);
+        poolSizes.put(Bulkhead.Group.BATCH, paramsConfig.getSchedulerBatchPoolSize());
+        poolSizes.put(Bulkhead.Group.CHAIN, paramsConfig.getSchedulerChainPoolSize());
+        poolSizes.put(Bulkhead.Group.INGEST, paramsConfig.getSchedulerIngestPoolSize());
+        poolSizes.put(Bulkhead.Group.ROUND, 1);
+        return new BulkheadTaskScheduler(poolSizes, meterRegistry);
     }
 
-
 }
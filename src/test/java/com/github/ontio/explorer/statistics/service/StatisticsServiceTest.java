@@ -0,0 +1,65 @@
+package com.github.ontio.explorer.statistics.service;
+
+import com.github.ontio.explorer.statistics.common.Constants;
+import com.github.ontio.explorer.statistics.mapper.DailySummaryMapper;
+import com.github.ontio.explorer.statistics.model.DailySummary;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StatisticsServiceTest {
+
+    private static final int DAY = 1554076800;
+
+    private DailySummaryMapper dailySummaryMapper;
+
+    private StatisticsService statisticsService;
+
+    @Before
+    public void setUp() {
+        dailySummaryMapper = mock(DailySummaryMapper.class);
+        statisticsService = new StatisticsService(null, null, null, null, dailySummaryMapper, null, null, null,
+                null, null, null, null);
+    }
+
+    @Test
+    public void testRunningTotalsContinueAfterGapDay() {
+        DailySummary previous = DailySummary.builder()
+                .time(DAY - 2 * Constants.ONE_DAY_IN_SEC)
+                .totalAddressCount(100)
+                .totalOntidCount(20)
+                .totalTxCount(1000L)
+                .build();
+        when(dailySummaryMapper.selectLatestBefore(DAY)).thenReturn(previous);
+
+        DailySummary day = day();
+        statisticsService.addRunningTotals(day);
+
+        assertEquals(Integer.valueOf(105), day.getTotalAddressCount());
+        assertEquals(Integer.valueOf(22), day.getTotalOntidCount());
+        assertEquals(Long.valueOf(1030L), day.getTotalTxCount());
+    }
+
+    @Test
+    public void testRunningTotalsStartFromFirstDay() {
+        DailySummary day = day();
+        statisticsService.addRunningTotals(day);
+
+        assertEquals(Integer.valueOf(5), day.getTotalAddressCount());
+        assertEquals(Integer.valueOf(2), day.getTotalOntidCount());
+        assertEquals(Long.valueOf(30L), day.getTotalTxCount());
+    }
+
+    private static DailySummary day() {
+        return DailySummary.builder()
+                .time(DAY)
+                .newAddressCount(5)
+                .newOntidCount(2)
+                .txCount(30)
+                .build();
+    }
+
+}